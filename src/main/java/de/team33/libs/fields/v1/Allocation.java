@@ -0,0 +1,91 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Utility to get new instances of a certain class without running any of its constructors, if possible.
+ * <p>
+ * The preferred strategy allocates instances directly through the platform's {@code sun.misc.Unsafe}.
+ * If that is not available, a (possibly private) constructor without parameters is used instead.
+ */
+final class Allocation {
+
+    private static final String CANNOT_ALLOCATE = "cannot create a new instance of <%s>";
+    private static final MethodHandle ALLOCATE = allocateInstance();
+
+    private Allocation() {
+    }
+
+    private static MethodHandle allocateInstance() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                                .unreflect(unsafeClass.getMethod("allocateInstance", Class.class))
+                                .bindTo(theUnsafe.get(null))
+                                .asType(MethodType.methodType(Object.class, Class.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a {@link Supplier} of new instances of a given class, using the preferred strategy available on the
+     * current platform. The {@link Supplier} throws an {@link IllegalArgumentException} as well if it fails to create
+     * an instance.
+     *
+     * @throws IllegalArgumentException if no strategy is applicable to the given class.
+     */
+    static <T> Supplier<T> supplier(final Class<T> subjectClass) {
+        if (!isConcrete(subjectClass)) {
+            throw new IllegalArgumentException(format(CANNOT_ALLOCATE, subjectClass));
+        }
+        if (null != ALLOCATE) {
+            return () -> allocate(subjectClass);
+        }
+        final Constructor<T> constructor = constructor(subjectClass);
+        return () -> construct(constructor);
+    }
+
+    private static boolean isConcrete(final Class<?> subjectClass) {
+        return !(subjectClass.isInterface() || subjectClass.isArray() || subjectClass.isPrimitive()
+                || Modifier.isAbstract(subjectClass.getModifiers()));
+    }
+
+    private static <T> T allocate(final Class<T> subjectClass) {
+        try {
+            return subjectClass.cast((Object) ALLOCATE.invokeExact(subjectClass));
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(format(CANNOT_ALLOCATE, subjectClass), e);
+        }
+    }
+
+    private static <T> Constructor<T> constructor(final Class<T> subjectClass) {
+        try {
+            final Constructor<T> result = subjectClass.getDeclaredConstructor();
+            result.setAccessible(true);
+            return result;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            throw new IllegalArgumentException(format(CANNOT_ALLOCATE, subjectClass), e);
+        }
+    }
+
+    private static <T> T construct(final Constructor<T> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(format(CANNOT_ALLOCATE, constructor.getDeclaringClass()), e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precomputed annotation lookups, used by the annotation-aware {@link Fields.Filter}s.
+ * <p>
+ * Each annotation type gets a unique number once. For each class, a table is computed once that holds, for the
+ * class itself and for each of its declared fields, a {@link BitSet} of the numbers of all annotation types present,
+ * including meta-annotations (resolved transitively) and, for the class itself, {@linkplain
+ * java.lang.annotation.Inherited inherited} annotations.
+ */
+final class Annotations {
+
+    private static final Map<Class<? extends Annotation>, Integer> NUMBERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT = new AtomicInteger();
+    private static final ClassValue<BitSet> CLOSURES = new ClassValue<BitSet>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected BitSet computeValue(final Class<?> type) {
+            return closure((Class<? extends Annotation>) type);
+        }
+    };
+    private static final ClassValue<Table> TABLES = new ClassValue<Table>() {
+        @Override
+        protected Table computeValue(final Class<?> type) {
+            return new Table(type);
+        }
+    };
+
+    private Annotations() {
+    }
+
+    /**
+     * Returns the unique number of a given annotation type.
+     */
+    static int number(final Class<? extends Annotation> type) {
+        return NUMBERS.computeIfAbsent(type, any -> NEXT.getAndIncrement());
+    }
+
+    private static BitSet closure(final Class<? extends Annotation> type) {
+        final BitSet result = new BitSet();
+        final Set<Class<? extends Annotation>> visited = new HashSet<>();
+        collect(type, visited, result);
+        return result;
+    }
+
+    private static void collect(final Class<? extends Annotation> type,
+                                final Set<Class<? extends Annotation>> visited, final BitSet result) {
+        if (visited.add(type)) {
+            result.set(number(type));
+            for (final Annotation meta : type.getAnnotations()) {
+                collect(meta.annotationType(), visited, result);
+            }
+        }
+    }
+
+    private static BitSet resolve(final Annotation[] annotations) {
+        final BitSet result = new BitSet();
+        for (final Annotation annotation : annotations) {
+            result.or(CLOSURES.get(annotation.annotationType()));
+        }
+        return result;
+    }
+
+    /**
+     * Determines if a given field is annotated with an annotation type of a given number, directly or by a
+     * meta-annotation.
+     */
+    static boolean isPresent(final Field field, final int number) {
+        return TABLES.get(field.getDeclaringClass()).fields.get(field.getName()).get(number);
+    }
+
+    /**
+     * Determines if the declaring class of a given field is annotated with an annotation type of a given number,
+     * directly, by inheritance or by a meta-annotation.
+     */
+    static boolean isPresentOnClass(final Field field, final int number) {
+        return TABLES.get(field.getDeclaringClass()).type.get(number);
+    }
+
+    private static final class Table {
+
+        private final BitSet type;
+        private final Map<String, BitSet> fields = new HashMap<>();
+
+        private Table(final Class<?> subject) {
+            type = resolve(subject.getAnnotations());
+            for (final Field field : subject.getDeclaredFields()) {
+                fields.put(field.getName(), resolve(field.getDeclaredAnnotations()));
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package de.team33.libs.fields.v1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import static java.lang.String.format;
+
+/**
+ * A sink of bytes, backed by a reusable {@link ByteBuffer}, that formats primitive values and text directly into
+ * that buffer without boxing or any intermediate objects. When the buffer runs full, it is handed to a
+ * {@link Drain}.
+ */
+final class ByteSink {
+
+    private static final byte[] MIN_LONG = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_LONG_LENGTH = MIN_LONG.length;
+    private static final int MAX_CHAR_LENGTH = 4;
+    private static final String TOO_SMALL = "capacity must be at least %d but was %d";
+
+    /**
+     * The minimum capacity of a buffer that is drained (rather than grown) when it runs full.
+     */
+    static final int MIN_CAPACITY = MAX_LONG_LENGTH;
+
+    private final Drain drain;
+    private ByteBuffer buffer;
+
+    ByteSink(final ByteBuffer buffer, final Drain drain) {
+        this.buffer = buffer;
+        this.drain = drain;
+    }
+
+    /**
+     * Returns a new {@link ByteSink} that writes to a given {@link WritableByteChannel} whenever its
+     * (direct) buffer of a given capacity runs full.
+     *
+     * @throws IllegalArgumentException if the capacity is less than {@link #MIN_CAPACITY}.
+     */
+    static ByteSink of(final WritableByteChannel channel, final int capacity) {
+        return new ByteSink(ByteBuffer.allocateDirect(checked(capacity)), (buffer, required) -> {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            return buffer;
+        });
+    }
+
+    /**
+     * Returns a new {@link ByteSink} that writes to a given {@link OutputStream} whenever a given (empty, heap)
+     * buffer runs full.
+     *
+     * @throws IllegalArgumentException if the capacity of the buffer is less than {@link #MIN_CAPACITY}.
+     */
+    static ByteSink of(final OutputStream out, final ByteBuffer empty) {
+        checked(empty.capacity());
+        return new ByteSink(empty, (buffer, required) -> {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            buffer.clear();
+            return buffer;
+        });
+    }
+
+    private static int checked(final int capacity) {
+        if (MIN_CAPACITY > capacity) {
+            throw new IllegalArgumentException(format(TOO_SMALL, MIN_CAPACITY, capacity));
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns a new {@link ByteSink} that grows its buffer, starting with a given capacity, whenever it runs full.
+     * The bytes written so far are available via {@link #toByteArray()}.
+     */
+    static ByteSink growing(final int capacity) {
+        return new ByteSink(ByteBuffer.allocate(capacity), (buffer, required) -> {
+            if (buffer.remaining() >= required) {
+                return buffer;
+            }
+            final int capacityRequired = buffer.position() + required;
+            final ByteBuffer result = ByteBuffer.allocate(Math.max(capacityRequired, 2 * buffer.capacity()));
+            buffer.flip();
+            return result.put(buffer);
+        });
+    }
+
+    /**
+     * Returns a copy of the bytes currently buffered (i.e. not yet drained).
+     */
+    final byte[] toByteArray() {
+        final byte[] result = new byte[buffer.position()];
+        ((ByteBuffer) buffer.duplicate().flip()).get(result);
+        return result;
+    }
+
+    private void ensure(final int required) throws IOException {
+        if (buffer.remaining() < required) {
+            buffer = drain.drain(buffer, required);
+        }
+    }
+
+    /**
+     * Hands over all bytes written so far to the underlying {@link Drain}.
+     */
+    final void flush() throws IOException {
+        buffer = drain.drain(buffer, 0);
+    }
+
+    final ByteSink put(final byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+        return this;
+    }
+
+    final ByteSink put(final byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+        return this;
+    }
+
+    /**
+     * Writes the decimal representation of a given value.
+     */
+    final ByteSink putDecimal(final long value) throws IOException {
+        if (Long.MIN_VALUE == value) {
+            return put(MIN_LONG);
+        }
+        ensure(MAX_LONG_LENGTH);
+        long rest = value;
+        if (0 > rest) {
+            buffer.put((byte) '-');
+            rest = -rest;
+        }
+        final int start = buffer.position();
+        final int end = start + digits(rest);
+        for (int index = end - 1; index >= start; --index) {
+            buffer.put(index, (byte) ('0' + (rest % 10)));
+            rest /= 10;
+        }
+        buffer.position(end);
+        return this;
+    }
+
+    private static int digits(final long value) {
+        int result = 1;
+        for (long rest = value / 10; 0 != rest; rest /= 10) {
+            ++result;
+        }
+        return result;
+    }
+
+    /**
+     * Writes a given {@link CharSequence} encoded as UTF-8.
+     */
+    final ByteSink putText(final CharSequence text) throws IOException {
+        final int length = text.length();
+        for (int index = 0; index < length; ++index) {
+            final char c = text.charAt(index);
+            if (Character.isHighSurrogate(c) && index + 1 < length
+                    && Character.isLowSurrogate(text.charAt(index + 1))) {
+                putCodePoint(Character.toCodePoint(c, text.charAt(++index)));
+            } else {
+                putCodePoint(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes a single code point encoded as UTF-8.
+     */
+    final ByteSink putCodePoint(final int codePoint) throws IOException {
+        ensure(MAX_CHAR_LENGTH);
+        if (codePoint < 0x80) {
+            buffer.put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)))
+                  .put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | (codePoint >> 12)))
+                  .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                  .put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                  .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                  .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                  .put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+        return this;
+    }
+
+    /**
+     * Abstracts a strategy to handle a {@link ByteBuffer} that runs full (or shall be flushed).
+     */
+    @FunctionalInterface
+    interface Drain {
+
+        /**
+         * Handles the content of a given buffer and returns a buffer to continue with, that provides at least a
+         * given number of remaining bytes.
+         */
+        ByteBuffer drain(ByteBuffer buffer, int required) throws IOException;
+    }
+}
@@ -0,0 +1,90 @@
+package de.team33.libs.fields.v1;
+
+import java.util.Arrays;
+
+/**
+ * A compact snapshot of the state of an instance of a certain type, captured by a {@link FieldMapper}.
+ * <p>
+ * Primitive field values are packed losslessly into a {@code long[]}, all other values are held in an
+ * {@code Object[]}, both indexed by a layout that is computed once per mapper. Restoring a checkpoint is purely
+ * positional and exact, including {@code null} values.
+ * <p>
+ * To get an instance use {@link FieldMapper#checkpoint(Object)}. A checkpoint may be reused to
+ * {@linkplain #capture(Object) capture} another state. Instances are not thread-safe.
+ *
+ * @param <T> the type of interest
+ */
+public final class Checkpoint<T> {
+
+    private final Slot[] slots;
+    private final Layout layout;
+    private final long[] primitives;
+    private final Object[] references;
+
+    Checkpoint(final FieldMapper<T> mapper) {
+        this.slots = mapper.slots();
+        this.layout = mapper.layout();
+        this.primitives = new long[layout.primitives];
+        this.references = new Object[layout.references];
+    }
+
+    /**
+     * Captures the current state of a given origin, replacing any state captured before.
+     *
+     * @return this checkpoint.
+     */
+    public final Checkpoint<T> capture(final T origin) {
+        for (final Slot slot : slots) {
+            final int position = layout.positions[slot.index()];
+            if (Slot.Kind.REFERENCE == slot.kind()) {
+                references[position] = slot.get(origin);
+            } else {
+                primitives[position] = slot.getBits(origin);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Restores the captured state into a given target.
+     *
+     * @return the target.
+     */
+    public final T restore(final T target) {
+        for (final Slot slot : slots) {
+            final int position = layout.positions[slot.index()];
+            if (Slot.Kind.REFERENCE == slot.kind()) {
+                slot.set(target, references[position]);
+            } else {
+                slot.setBits(target, primitives[position]);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public final String toString() {
+        return "Checkpoint" + Arrays.toString(primitives) + Arrays.toString(references);
+    }
+
+    /**
+     * Assigns each mapped field a position either in the primitive or in the reference part of a checkpoint.
+     */
+    static final class Layout {
+
+        private final int[] positions;
+        private final int primitives;
+        private final int references;
+
+        Layout(final Slot[] slots) {
+            int primitives = 0;
+            int references = 0;
+            positions = new int[slots.length];
+            for (final Slot slot : slots) {
+                positions[slot.index()] = (Slot.Kind.REFERENCE == slot.kind()) ? references++ : primitives++;
+            }
+            this.primitives = primitives;
+            this.references = references;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package de.team33.libs.fields.v1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static java.lang.String.format;
+
+/**
+ * Abstracts the binary encoding of a single mapped field as used by a {@link FieldStore}.
+ * <p>
+ * Supported are all primitive types, their wrapper types, {@link String} and enum types.
+ */
+abstract class Codec {
+
+    private static final String UNSUPPORTED = "cannot encode field <%s> of type <%s>";
+    private static final byte NULL = 0;
+    private static final byte PRESENT = 1;
+
+    final Slot slot;
+
+    private Codec(final Slot slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Returns a {@link Codec} for a given {@link Slot}.
+     *
+     * @throws IllegalArgumentException if the type of the underlying field is not supported.
+     */
+    static Codec of(final Slot slot) {
+        final Class<?> type = slot.field().getType();
+        switch (slot.kind()) {
+        case BOOLEAN:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.put(slot.getBoolean(origin) ? PRESENT : NULL);
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setBoolean(target, NULL != buffer.get());
+                }
+            };
+        case BYTE:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.put(slot.getByte(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setByte(target, buffer.get());
+                }
+            };
+        case SHORT:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putShort(slot.getShort(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setShort(target, buffer.getShort());
+                }
+            };
+        case CHAR:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putChar(slot.getChar(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setChar(target, buffer.getChar());
+                }
+            };
+        case INT:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putInt(slot.getInt(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setInt(target, buffer.getInt());
+                }
+            };
+        case LONG:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putLong(slot.getLong(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setLong(target, buffer.getLong());
+                }
+            };
+        case FLOAT:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putFloat(slot.getFloat(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setFloat(target, buffer.getFloat());
+                }
+            };
+        case DOUBLE:
+            return new Codec(slot) {
+                @Override
+                void encode(final Object origin, final ByteBuffer buffer) {
+                    buffer.putDouble(slot.getDouble(origin));
+                }
+
+                @Override
+                void decode(final ByteBuffer buffer, final Object target) {
+                    slot.setDouble(target, buffer.getDouble());
+                }
+            };
+        default:
+            return reference(slot, type);
+        }
+    }
+
+    private static Codec reference(final Slot slot, final Class<?> type) {
+        if (String.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    putString((String) value, buffer);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return getString(buffer);
+                }
+            };
+        }
+        if (type.isEnum()) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    putString(((Enum<?>) value).name(), buffer);
+                }
+
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                Object decodeValue(final ByteBuffer buffer) {
+                    return Enum.valueOf((Class) type, getString(buffer));
+                }
+            };
+        }
+        if (Boolean.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.put((Boolean) value ? PRESENT : NULL);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return NULL != buffer.get();
+                }
+            };
+        }
+        if (Byte.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.put((Byte) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.get();
+                }
+            };
+        }
+        if (Short.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putShort((Short) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getShort();
+                }
+            };
+        }
+        if (Character.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putChar((Character) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getChar();
+                }
+            };
+        }
+        if (Integer.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putInt((Integer) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getInt();
+                }
+            };
+        }
+        if (Long.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putLong((Long) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getLong();
+                }
+            };
+        }
+        if (Float.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putFloat((Float) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getFloat();
+                }
+            };
+        }
+        if (Double.class == type) {
+            return new Nullable(slot) {
+                @Override
+                void encodeValue(final Object value, final ByteBuffer buffer) {
+                    buffer.putDouble((Double) value);
+                }
+
+                @Override
+                Object decodeValue(final ByteBuffer buffer) {
+                    return buffer.getDouble();
+                }
+            };
+        }
+        throw new IllegalArgumentException(format(UNSUPPORTED, slot.field(), type.getName()));
+    }
+
+    private static void putString(final String value, final ByteBuffer buffer) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the value of the underlying field of a given origin to a given buffer.
+     */
+    abstract void encode(Object origin, ByteBuffer buffer);
+
+    /**
+     * Reads a value from a given buffer and sets the underlying field of a given target to that value.
+     */
+    abstract void decode(ByteBuffer buffer, Object target);
+
+    private abstract static class Nullable extends Codec {
+
+        private Nullable(final Slot slot) {
+            super(slot);
+        }
+
+        @Override
+        final void encode(final Object origin, final ByteBuffer buffer) {
+            final Object value = slot.get(origin);
+            if (null == value) {
+                buffer.put(NULL);
+            } else {
+                buffer.put(PRESENT);
+                encodeValue(value, buffer);
+            }
+        }
+
+        @Override
+        final void decode(final ByteBuffer buffer, final Object target) {
+            slot.set(target, (NULL == buffer.get()) ? null : decodeValue(buffer));
+        }
+
+        abstract void encodeValue(Object value, ByteBuffer buffer);
+
+        abstract Object decodeValue(ByteBuffer buffer);
+    }
+}
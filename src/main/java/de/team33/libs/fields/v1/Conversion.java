@@ -0,0 +1,113 @@
+package de.team33.libs.fields.v1;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A stage of a {@link FieldMapper} that converts the values of an original map to the types of the mapped fields
+ * before setting them, using a {@link Converters} registry.
+ * <p>
+ * The converter of each field is resolved once per observed source type and cached at the field's slot, so
+ * converting a value typically costs a single (monomorphic) call in addition to the conversion itself.
+ * {@code null} values are not converted.
+ * <p>
+ * To get an instance use {@link FieldMapper#converting(Converters)}. Instances are thread-safe.
+ *
+ * @param <T> the type of interest
+ */
+public final class Conversion<T> {
+
+    private final FieldMapper<T> mapper;
+    private final Converters converters;
+    private final Slot[] slots;
+    private final Map<String, Slot> index;
+    private final Cached[] cache;
+
+    Conversion(final FieldMapper<T> mapper, final Converters converters, final Map<String, Slot> index) {
+        this.mapper = mapper;
+        this.converters = converters;
+        this.slots = mapper.slots();
+        this.index = index;
+        this.cache = new Cached[slots.length];
+    }
+
+    private Object convert(final Slot slot, final Object value) {
+        if (null == value) {
+            return null;
+        }
+        final Class<?> sourceType = value.getClass();
+        final Cached head = cache[slot.index()];
+        for (Cached cached = head; null != cached; cached = cached.next) {
+            if (sourceType == cached.sourceType) {
+                return cached.converter.apply(value);
+            }
+        }
+        final Cached cached = new Cached(sourceType, converters.lookup(sourceType, slot.field().getType()), head);
+        cache[slot.index()] = cached;
+        return cached.converter.apply(value);
+    }
+
+    /**
+     * Converts the values of an original map and copies them into a corresponding target instance of the
+     * underlying type.
+     *
+     * @return the target instance.
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its field.
+     * @see FieldMapper#map(Map, Object)
+     */
+    public final T map(final Map<?, ?> origin, final T target) {
+        for (final Slot slot : slots) {
+            slot.set(target, convert(slot, origin.get(slot.name())));
+        }
+        return target;
+    }
+
+    /**
+     * Converts the values of an original map and copies them into a {@linkplain FieldMapper#newInstance() new}
+     * instance of the underlying type.
+     *
+     * @return the new instance.
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its field.
+     * @see FieldMapper#map(Map)
+     */
+    public final T map(final Map<?, ?> origin) {
+        return map(origin, mapper.newInstance());
+    }
+
+    /**
+     * Converts the values of an original map and copies them into a corresponding target instance of the
+     * underlying type, but only those values whose keys are present in the map. Keys that don't match any mapped
+     * field are passed to a given {@link FieldMapper.Unmapped} policy.
+     *
+     * @return the target instance.
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its field.
+     * @see FieldMapper#patch(Map, Object, FieldMapper.Unmapped)
+     */
+    public final T patch(final Map<?, ?> origin, final T target, final FieldMapper.Unmapped unmapped) {
+        for (final Map.Entry<?, ?> entry : origin.entrySet()) {
+            final Slot slot = index.get(entry.getKey());
+            if (null == slot) {
+                unmapped.accept(entry.getKey(), entry.getValue());
+            } else {
+                slot.set(target, convert(slot, entry.getValue()));
+            }
+        }
+        return target;
+    }
+
+    /**
+     * An immutable entry of a (short) list of converters per field, each associated with a source type.
+     */
+    private static final class Cached {
+
+        private final Class<?> sourceType;
+        private final Function<Object, Object> converter;
+        private final Cached next;
+
+        private Cached(final Class<?> sourceType, final Function<Object, Object> converter, final Cached next) {
+            this.sourceType = sourceType;
+            this.converter = converter;
+            this.next = next;
+        }
+    }
+}
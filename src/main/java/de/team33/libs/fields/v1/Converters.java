@@ -0,0 +1,147 @@
+package de.team33.libs.fields.v1;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable registry of converters from source types to target types, as used by a {@link Conversion}.
+ * <p>
+ * To get an instance use {@link #NONE} or {@link #STANDARD} and extend it by {@link #with(Class, Class, Function)}.
+ */
+public final class Converters {
+
+    private static final String NO_CONVERTER = "no converter from <%s> to <%s>";
+    private static final Map<Class<?>, Class<?>> WRAPPERS = wrappers();
+
+    /**
+     * A registry without any converters. A value is only applicable to a target type if it is an instance of that
+     * type (or of the corresponding wrapper type in case of a primitive target type).
+     */
+    public static final Converters NONE = new Converters(Collections.emptyMap());
+
+    /**
+     * A registry that contains some typical converters:
+     * <ul>
+     * <li>from any {@link Number} to any other primitive numeric type or its wrapper type
+     * (as by {@link Number#intValue()}, {@link Number#longValue()}, ...)</li>
+     * <li>from any {@link Number} to {@link BigInteger} and {@link BigDecimal}</li>
+     * <li>from {@link String} to any primitive type, its wrapper type, {@link BigInteger}, {@link BigDecimal} and
+     * any enum type</li>
+     * <li>from any {@link Object} to {@link String}</li>
+     * </ul>
+     */
+    public static final Converters STANDARD = NONE
+            .with(Number.class, Byte.class, Number::byteValue)
+            .with(Number.class, Short.class, Number::shortValue)
+            .with(Number.class, Integer.class, Number::intValue)
+            .with(Number.class, Long.class, Number::longValue)
+            .with(Number.class, Float.class, Number::floatValue)
+            .with(Number.class, Double.class, Number::doubleValue)
+            .with(Number.class, BigDecimal.class, number -> new BigDecimal(number.toString()))
+            .with(Number.class, BigInteger.class, number -> new BigDecimal(number.toString()).toBigInteger())
+            .with(String.class, Boolean.class, Boolean::valueOf)
+            .with(String.class, Character.class, Converters::toCharacter)
+            .with(String.class, Byte.class, Byte::valueOf)
+            .with(String.class, Short.class, Short::valueOf)
+            .with(String.class, Integer.class, Integer::valueOf)
+            .with(String.class, Long.class, Long::valueOf)
+            .with(String.class, Float.class, Float::valueOf)
+            .with(String.class, Double.class, Double::valueOf)
+            .with(String.class, BigDecimal.class, BigDecimal::new)
+            .with(String.class, BigInteger.class, BigInteger::new)
+            .with(Object.class, String.class, String::valueOf);
+
+    private final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> byTarget;
+
+    private Converters(final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> byTarget) {
+        this.byTarget = byTarget;
+    }
+
+    private static Map<Class<?>, Class<?>> wrappers() {
+        final Map<Class<?>, Class<?>> result = new HashMap<>();
+        result.put(boolean.class, Boolean.class);
+        result.put(byte.class, Byte.class);
+        result.put(short.class, Short.class);
+        result.put(char.class, Character.class);
+        result.put(int.class, Integer.class);
+        result.put(long.class, Long.class);
+        result.put(float.class, Float.class);
+        result.put(double.class, Double.class);
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Character toCharacter(final String value) {
+        if (1 != value.length()) {
+            throw new IllegalArgumentException(format("<%s> is not a single character", value));
+        }
+        return value.charAt(0);
+    }
+
+    private static Class<?> boxed(final Class<?> type) {
+        return WRAPPERS.getOrDefault(type, type);
+    }
+
+    /**
+     * Returns a new registry that contains all converters of this one plus a given converter from a given source
+     * type to a given target type. The converter replaces any other converter of this registry for the same
+     * source and target type.
+     * <p>
+     * A converter for a source type also applies to subtypes of that source type, unless there is a converter for
+     * a more specific source type. A converter for a wrapper type as target type also applies to the corresponding
+     * primitive type.
+     */
+    @SuppressWarnings("unchecked")
+    public final <S, R> Converters with(final Class<S> sourceType, final Class<R> targetType,
+                                        final Function<? super S, ? extends R> converter) {
+        final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> result = new HashMap<>(byTarget);
+        final Map<Class<?>, Function<Object, Object>> bySource =
+                new HashMap<>(result.getOrDefault(boxed(targetType), Collections.emptyMap()));
+        bySource.put(boxed(sourceType), (Function<Object, Object>) converter);
+        result.put(boxed(targetType), Collections.unmodifiableMap(bySource));
+        return new Converters(Collections.unmodifiableMap(result));
+    }
+
+    /**
+     * Resolves a converter from a given source type to a given target type.
+     *
+     * @throws IllegalArgumentException if there is no applicable converter.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final Function<Object, Object> lookup(final Class<?> sourceType, final Class<?> targetType) {
+        final Class<?> target = boxed(targetType);
+        if (target.isAssignableFrom(sourceType)) {
+            return Function.identity();
+        }
+        final Map<Class<?>, Function<Object, Object>> bySource = byTarget.getOrDefault(target, Collections.emptyMap());
+        final Deque<Class<?>> pending = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        pending.add(sourceType);
+        while (!pending.isEmpty()) {
+            final Class<?> candidate = pending.removeFirst();
+            if (visited.add(candidate)) {
+                final Function<Object, Object> result = bySource.get(candidate);
+                if (null != result) {
+                    return result;
+                }
+                if (null != candidate.getSuperclass()) {
+                    pending.addLast(candidate.getSuperclass());
+                }
+                Collections.addAll(pending, candidate.getInterfaces());
+            }
+        }
+        if (target.isEnum() && String.class == sourceType) {
+            return value -> Enum.valueOf((Class) target, (String) value);
+        }
+        throw new IllegalArgumentException(format(NO_CONVERTER, sourceType.getName(), targetType.getName()));
+    }
+}
@@ -0,0 +1,266 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+
+import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A typed, reusable accessor for a single field mapped by a {@link FieldMapper}.
+ * <p>
+ * To get an instance use {@link FieldMapper#accessor(String)} or {@link FieldMapper#accessor(int)}. The mapper
+ * caches its accessors once created. Accessors are immutable and thread-safe, so they may be kept and shared freely.
+ * <p>
+ * The primitive getters (e.g. {@link #getInt(Object)}) and setters (e.g. {@link #setLong(Object, long)}) apply
+ * to a field whose type is convertible to/from the respective primitive type, primarily a primitive field of that
+ * or a narrower type (getters) or a wider type (setters). They access the field the same way the mapper itself
+ * does, primitive values without boxing.
+ * <p>
+ * Where access is most critical, use the {@linkplain #getter() getter} and {@linkplain #setter() setter} method
+ * handles instead and keep them in {@code static final} fields. The JIT compiler treats such handles as constants
+ * and inlines them like a handwritten field access, e.g.:
+ * <pre>
+ * private static final MethodHandle AN_INT = MAPPER.accessor("anInt").getter();
+ * ...
+ * final int value = (int) AN_INT.invokeExact(subject);
+ * </pre>
+ *
+ * @param <T> the type of interest
+ */
+public final class FieldAccessor<T> {
+
+    private static final String CANNOT_ACCESS = "cannot access field <%s>";
+
+    private final Slot slot;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    FieldAccessor(final Slot slot) {
+        this.slot = slot;
+        this.getter = getter(slot.field());
+        this.setter = setter(slot.field());
+    }
+
+    private static MethodHandle getter(final Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(format(CANNOT_ACCESS, field), e);
+        }
+    }
+
+    private static MethodHandle setter(final Field field) {
+        try {
+            return MethodHandles.lookup().unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            // e.g. a final field that is not writable by method handles on this platform ...
+            try {
+                return MethodHandles.lookup()
+                                    .findVirtual(Field.class, "set",
+                                                 methodType(void.class, Object.class, Object.class))
+                                    .bindTo(field)
+                                    .asType(methodType(void.class, field.getDeclaringClass(), field.getType()));
+            } catch (NoSuchMethodException | IllegalAccessException e2) {
+                throw new IllegalArgumentException(format(CANNOT_ACCESS, field), e2);
+            }
+        }
+    }
+
+    /**
+     * Returns a {@link MethodHandle} that reads the underlying field. Its type is
+     * {@code (declaringClass)fieldType}, so it must be {@linkplain MethodHandle#invokeExact(Object...) invoked
+     * exactly} with an argument statically typed as the declaring class and a result cast to the field type.
+     * <p>
+     * Keep it in a {@code static final} field to have the JIT compiler treat it as a constant.
+     */
+    public final MethodHandle getter() {
+        return getter;
+    }
+
+    /**
+     * Returns a {@link MethodHandle} that writes the underlying field. Its type is
+     * {@code (declaringClass, fieldType)void}, so it must be {@linkplain MethodHandle#invokeExact(Object...)
+     * invoked exactly} with arguments statically typed as the declaring class and the field type.
+     * <p>
+     * Keep it in a {@code static final} field to have the JIT compiler treat it as a constant.
+     */
+    public final MethodHandle setter() {
+        return setter;
+    }
+
+    /**
+     * Returns the logical name of the underlying field.
+     */
+    public final String name() {
+        return slot.name();
+    }
+
+    /**
+     * Returns the underlying {@link Field}.
+     */
+    public final Field field() {
+        return slot.field();
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance, primitive values boxed.
+     */
+    public final Object getObject(final T instance) {
+        return slot.get(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given value, primitive values boxed.
+     *
+     * @throws IllegalArgumentException if the value is not applicable to the field's type.
+     */
+    public final void setObject(final T instance, final Object value) {
+        slot.set(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code boolean}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code boolean}.
+     */
+    public final boolean getBoolean(final T instance) {
+        return slot.getBoolean(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code boolean} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setBoolean(final T instance, final boolean value) {
+        slot.setBoolean(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code byte}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code byte}.
+     */
+    public final byte getByte(final T instance) {
+        return slot.getByte(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code byte} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setByte(final T instance, final byte value) {
+        slot.setByte(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code short}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code short}.
+     */
+    public final short getShort(final T instance) {
+        return slot.getShort(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code short} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setShort(final T instance, final short value) {
+        slot.setShort(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code char}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code char}.
+     */
+    public final char getChar(final T instance) {
+        return slot.getChar(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code char} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setChar(final T instance, final char value) {
+        slot.setChar(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code int}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code int}.
+     */
+    public final int getInt(final T instance) {
+        return slot.getInt(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code int} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setInt(final T instance, final int value) {
+        slot.setInt(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code long}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code long}.
+     */
+    public final long getLong(final T instance) {
+        return slot.getLong(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code long} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setLong(final T instance, final long value) {
+        slot.setLong(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code float}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code float}.
+     */
+    public final float getFloat(final T instance) {
+        return slot.getFloat(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code float} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setFloat(final T instance, final float value) {
+        slot.setFloat(instance, value);
+    }
+
+    /**
+     * Returns the value of the underlying field of a given instance as {@code double}.
+     *
+     * @throws IllegalArgumentException if the field's value is not convertible to {@code double}.
+     */
+    public final double getDouble(final T instance) {
+        return slot.getDouble(instance);
+    }
+
+    /**
+     * Sets the underlying field of a given instance to a given {@code double} value.
+     *
+     * @throws IllegalArgumentException if the value is not convertible to the field's type.
+     */
+    public final void setDouble(final T instance, final double value) {
+        slot.setDouble(instance, value);
+    }
+}
@@ -0,0 +1,133 @@
+package de.team33.libs.fields.v1;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * Utility to get {@link Comparator}s that order instances of a certain type by the values of some of their mapped
+ * fields.
+ * <p>
+ * The resulting comparators read the fields through the precompiled plan of a {@link FieldMapper} and compare
+ * primitive values directly, without boxing. Other values must be {@link Comparable} and are
+ * compared by their natural order, {@code null} values first.
+ */
+public final class FieldComparators {
+
+    private static final String NOT_COMPARABLE = "field <%s> is neither primitive nor comparable";
+
+    private FieldComparators() {
+    }
+
+    /**
+     * Returns a {@link Key} to order by the field mapped by a given logical name in ascending order.
+     */
+    public static Key ascending(final String name) {
+        return new Key(name, false);
+    }
+
+    /**
+     * Returns a {@link Key} to order by the field mapped by a given logical name in descending order.
+     */
+    public static Key descending(final String name) {
+        return new Key(name, true);
+    }
+
+    /**
+     * Returns a {@link Comparator} that orders by the fields mapped by some given logical names, each in ascending
+     * order, with decreasing priority.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by one of the given names or if one of the
+     *                                  fields is neither primitive nor comparable.
+     */
+    public static <T> Comparator<T> of(final FieldMapper<T> mapper, final String... names) {
+        return of(mapper, Stream.of(names).map(FieldComparators::ascending).toArray(Key[]::new));
+    }
+
+    /**
+     * Returns a {@link Comparator} that orders by some given {@link Key}s with decreasing priority.
+     *
+     * @throws IllegalArgumentException if no keys are given, if there is no field mapped by one of the key's
+     *                                  names or if one of the fields is neither primitive nor comparable.
+     */
+    public static <T> Comparator<T> of(final FieldMapper<T> mapper, final Key... keys) {
+        if (0 == keys.length) {
+            throw new IllegalArgumentException("at least one key is required");
+        }
+        Comparator<T> result = of(mapper, keys[keys.length - 1]);
+        for (int index = keys.length - 2; index >= 0; --index) {
+            result = new Chain<>(of(mapper, keys[index]), result);
+        }
+        return result;
+    }
+
+    private static <T> Comparator<T> of(final FieldMapper<T> mapper, final Key key) {
+        final Comparator<T> result = of(mapper.slot(key.name));
+        return key.descending ? result.reversed() : result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> of(final Slot slot) {
+        switch (slot.kind()) {
+        case BOOLEAN:
+            return (one, other) -> Boolean.compare(slot.getBoolean(one), slot.getBoolean(other));
+        case BYTE:
+        case SHORT:
+        case CHAR:
+        case INT:
+            return (one, other) -> Integer.compare(slot.getInt(one), slot.getInt(other));
+        case LONG:
+            return (one, other) -> Long.compare(slot.getLong(one), slot.getLong(other));
+        case FLOAT:
+            return (one, other) -> Float.compare(slot.getFloat(one), slot.getFloat(other));
+        case DOUBLE:
+            return (one, other) -> Double.compare(slot.getDouble(one), slot.getDouble(other));
+        default:
+            if (!Comparable.class.isAssignableFrom(slot.field().getType())) {
+                throw new IllegalArgumentException(format(NOT_COMPARABLE, slot.field()));
+            }
+            return (one, other) -> {
+                final Comparable left = (Comparable) slot.get(one);
+                final Object right = slot.get(other);
+                return (left == right) ? 0 : (null == left) ? -1 : (null == right) ? 1 : left.compareTo(right);
+            };
+        }
+    }
+
+    /**
+     * Specifies a logical field name and a direction to order by.
+     */
+    public static final class Key {
+
+        private final String name;
+        private final boolean descending;
+
+        private Key(final String name, final boolean descending) {
+            this.name = name;
+            this.descending = descending;
+        }
+
+        @Override
+        public final String toString() {
+            return (descending ? "-" : "+") + name;
+        }
+    }
+
+    private static final class Chain<T> implements Comparator<T> {
+
+        private final Comparator<T> first;
+        private final Comparator<T> next;
+
+        private Chain(final Comparator<T> first, final Comparator<T> next) {
+            this.first = first;
+            this.next = next;
+        }
+
+        @Override
+        public int compare(final T one, final T other) {
+            final int result = first.compare(one, other);
+            return (0 == result) ? next.compare(one, other) : result;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An index over the {@link Field}s of a set of classes, built once (in parallel) to answer queries by field type,
+ * field name or {@linkplain Fields.Filter filter} from precomputed inverted lists rather than by repeated
+ * reflection.
+ * <p>
+ * The predefined {@link Fields.Filter} constants are evaluated eagerly when the index is built. Any other filter
+ * is evaluated on each use, but only for the fields still selected by a {@link Query}, and is not retained.
+ * <p>
+ * To get an instance use {@link #of(Fields.Streaming, Collection)} or {@link #of(Class[])}.
+ * Instances are thread-safe.
+ */
+public final class FieldIndex {
+
+    private static final Fields.Filter[] PREDEFINED = {
+            Fields.Filter.ANY, Fields.Filter.PUBLIC, Fields.Filter.PRIVATE, Fields.Filter.PROTECTED,
+            Fields.Filter.STATIC, Fields.Filter.FINAL, Fields.Filter.TRANSIENT, Fields.Filter.SYNTHETIC,
+            Fields.Filter.INSTANCE, Fields.Filter.SIGNIFICANT};
+
+    private final Field[] fields;
+    private final Map<Class<?>, BitSet> byType;
+    private final Map<String, BitSet> byName;
+    private final Map<Fields.Filter, BitSet> byFilter;
+
+    private FieldIndex(final Field[] fields) {
+        this.fields = fields;
+        this.byType = invert(fields, Field::getType);
+        this.byName = invert(fields, Field::getName);
+        this.byFilter = Stream.of(PREDEFINED).parallel()
+                              .collect(Collectors.toMap(Function.identity(), this::select));
+    }
+
+    /**
+     * Builds a new {@link FieldIndex} over the fields of some given classes, each of them streamed by a given
+     * {@link Fields.Streaming} method. Fields that are streamed for several classes are indexed only once.
+     */
+    public static FieldIndex of(final Fields.Streaming streaming, final Collection<? extends Class<?>> classes) {
+        return new FieldIndex(classes.parallelStream()
+                                     .flatMap(streaming)
+                                     .collect(Collectors.toCollection(LinkedHashSet::new))
+                                     .toArray(new Field[0]));
+    }
+
+    /**
+     * Builds a new {@link FieldIndex} over the fields {@linkplain Fields.Streaming#FLAT straightly declared} by
+     * some given classes.
+     */
+    public static FieldIndex of(final Class<?>... classes) {
+        return of(Fields.Streaming.FLAT, Arrays.asList(classes));
+    }
+
+    private static <K> Map<K, BitSet> invert(final Field[] fields, final Function<Field, K> key) {
+        final Map<K, BitSet> result = new HashMap<>();
+        for (int index = 0; index < fields.length; ++index) {
+            result.computeIfAbsent(key.apply(fields[index]), any -> new BitSet()).set(index);
+        }
+        return result;
+    }
+
+    private BitSet select(final Predicate<? super Field> filter) {
+        final BitSet result = new BitSet(fields.length);
+        IntStream.range(0, fields.length)
+                 .filter(index -> filter.test(fields[index]))
+                 .forEach(result::set);
+        return result;
+    }
+
+    /**
+     * Returns the number of indexed fields.
+     */
+    public final int size() {
+        return fields.length;
+    }
+
+    /**
+     * Returns a new {@link Query} that initially selects all indexed fields.
+     */
+    public final Query query() {
+        return new Query(byFilter.get(Fields.Filter.ANY));
+    }
+
+    /**
+     * Returns all indexed fields whose declared type is exactly a given type.
+     */
+    public final List<Field> ofType(final Class<?> type) {
+        return query().ofType(type).fields();
+    }
+
+    /**
+     * Returns all indexed fields of a given plain name.
+     */
+    public final List<Field> named(final String name) {
+        return query().named(name).fields();
+    }
+
+    /**
+     * Returns all indexed fields matching a given filter.
+     */
+    public final List<Field> matching(final Predicate<? super Field> filter) {
+        return query().matching(filter).fields();
+    }
+
+    /**
+     * Returns all classes that declare an indexed field of a given plain name.
+     */
+    public final Set<Class<?>> classesDeclaring(final String name) {
+        return query().named(name).declaringClasses();
+    }
+
+    /**
+     * A query to an index that narrows down a selection of fields by a conjunction of terms.
+     * Instances are not thread-safe.
+     */
+    public final class Query {
+
+        private final BitSet selection;
+
+        private Query(final BitSet selection) {
+            this.selection = (BitSet) selection.clone();
+        }
+
+        private Query and(final BitSet bits) {
+            if (null == bits) {
+                selection.clear();
+            } else {
+                selection.and(bits);
+            }
+            return this;
+        }
+
+        /**
+         * Narrows down the selection to fields whose declared type is exactly a given type.
+         *
+         * @return this query.
+         */
+        public final Query ofType(final Class<?> type) {
+            return and(byType.get(type));
+        }
+
+        /**
+         * Narrows down the selection to fields of a given plain name.
+         *
+         * @return this query.
+         */
+        public final Query named(final String name) {
+            return and(byName.get(name));
+        }
+
+        /**
+         * Narrows down the selection to fields matching a given filter.
+         *
+         * @return this query.
+         */
+        public final Query matching(final Predicate<? super Field> filter) {
+            final BitSet bits = byFilter.get(filter);
+            if (null != bits) {
+                return and(bits);
+            }
+            for (int index = selection.nextSetBit(0); 0 <= index; index = selection.nextSetBit(index + 1)) {
+                if (!filter.test(fields[index])) {
+                    selection.clear(index);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of fields currently selected.
+         */
+        public final int size() {
+            return selection.cardinality();
+        }
+
+        /**
+         * Returns the fields currently selected, in the order of the index.
+         */
+        public final List<Field> fields() {
+            final List<Field> result = new ArrayList<>(selection.cardinality());
+            selection.stream().forEach(index -> result.add(fields[index]));
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * Returns the classes declaring the fields currently selected.
+         */
+        public final Set<Class<?>> declaringClasses() {
+            final Set<Class<?>> result = new LinkedHashSet<>();
+            selection.stream().forEach(index -> result.add(fields[index].getDeclaringClass()));
+            return Collections.unmodifiableSet(result);
+        }
+    }
+}
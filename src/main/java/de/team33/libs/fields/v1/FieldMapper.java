@@ -1,8 +1,17 @@
 package de.team33.libs.fields.v1;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 
@@ -23,41 +32,437 @@ public final class FieldMapper<T> {
      */
     public static final Factory FACTORY = factory(Fields.Mapping.SIGNIFICANT_DEEP);
 
-    private static final String CANNOT_GET_FIELD = "cannot get value of field <%s> of instance <%s>";
-    private static final String CANNOT_SET_FIELD = "cannot Set field <%s> of instance <%s> to value <%s>";
+    private static final String NO_SUCH_NAME = "no field mapped by name <%s>";
 
-    private final Map<String, Field> mapping;
+    private final Factory factory;
+    private final Class<T> subjectClass;
+    private final Slot[] slots;
+    private final Map<String, Slot> index;
+    private final List<String> names;
+    private volatile Supplier<T> allocation;
+    private volatile Nesting[] nesting;
+    private volatile Checkpoint.Layout layout;
 
-    private FieldMapper(final Map<String, Field> mapping) {
-        this.mapping = mapping;
+    private FieldMapper(final Factory factory, final Class<T> subjectClass, final Map<String, Field> mapping) {
+        this.factory = factory;
+        this.subjectClass = subjectClass;
+        this.slots = (mapping instanceof LazyFieldMap) ? slots((LazyFieldMap) mapping) : slots(mapping);
+        this.index = new HashMap<>(slots.length * 2);
+        for (final Slot slot : slots) {
+            index.put(slot.name(), slot);
+        }
+        this.names = Collections.unmodifiableList(Arrays.asList(Stream.of(slots).map(Slot::name)
+                                                                      .toArray(String[]::new)));
     }
 
     /**
      * A method to get a {@link Factory} that differs from the {@link #FACTORY default factory}.
+     * <p>
+     * The resulting {@link Factory} caches the {@link FieldMapper}s it creates, so it retrieves the same instance
+     * each time it is asked for the same type. The cache is a {@link ClassValue}, so it does not keep a mapped
+     * class (and its class loader) from being unloaded.
      */
     public static Factory factory(final Function<Class<?>, Map<String, Field>> mapping) {
+        final String strategy = FlightEvents.strategy(mapping);
         return new Factory() {
+            private final Factory factory = this;
+            private final ClassValue<FieldMapper<?>> cache = new ClassValue<FieldMapper<?>>() {
+                @Override
+                protected FieldMapper<?> computeValue(final Class<?> type) {
+                    return create(factory, type, mapping, strategy);
+                }
+            };
+
+            @SuppressWarnings("unchecked")
             @Override
             public <T> FieldMapper<T> mapperFor(final Class<T> subjectClass) {
-                return new FieldMapper<T>(mapping.apply(subjectClass));
+                return (FieldMapper<T>) cache.get(subjectClass);
             }
         };
     }
 
-    private static void set(final Field field, final Object target, final Object value) {
-        try {
-            field.set(target, value);
-        } catch (IllegalAccessException e) {
-            throw new IllegalArgumentException(format(CANNOT_SET_FIELD, field, target, value), e);
+    private static <T> FieldMapper<T> create(final Factory factory, final Class<T> subjectClass,
+                                             final Function<Class<?>, Map<String, Field>> mapping,
+                                             final String strategy) {
+        final Object resolution = FlightEvents.MAPPING.begin();
+        final Map<String, Field> fields = mapping.apply(subjectClass);
+        FlightEvents.MAPPING.commit(resolution, subjectClass, fields.size(), strategy);
+        final Object construction = FlightEvents.CONSTRUCTION.begin();
+        final FieldMapper<T> result = new FieldMapper<>(factory, subjectClass, fields);
+        FlightEvents.CONSTRUCTION.commit(construction, subjectClass, result.size(), strategy);
+        return result;
+    }
+
+    final Class<T> subjectClass() {
+        return subjectClass;
+    }
+
+    final Slot[] slots() {
+        return slots;
+    }
+
+    private static Slot[] slots(final Map<String, Field> mapping) {
+        final Slot[] result = new Slot[mapping.size()];
+        int position = 0;
+        for (final Map.Entry<String, Field> entry : mapping.entrySet()) {
+            result[position] = new Slot(position, Fields.canonicalKey(entry.getKey()), entry.getValue());
+            ++position;
+        }
+        return result;
+    }
+
+    private static Slot[] slots(final LazyFieldMap mapping) {
+        final String[] names = mapping.names();
+        final Field[] fields = mapping.rawFields();
+        final Slot[] result = new Slot[names.length];
+        for (int position = 0; position < names.length; ++position) {
+            result[position] = new Slot(position, names[position], fields[position]);
+        }
+        return result;
+    }
+
+    final Nesting[] nesting() {
+        if (null == nesting) {
+            nesting = Nesting.compose(this, factory);
+        }
+        return nesting;
+    }
+
+    final Checkpoint.Layout layout() {
+        if (null == layout) {
+            layout = new Checkpoint.Layout(slots);
+        }
+        return layout;
+    }
+
+    private Supplier<T> allocation() {
+        if (null == allocation) {
+            allocation = Allocation.supplier(subjectClass);
         }
+        return allocation;
+    }
+
+    /**
+     * Returns the number of mapped fields. Each mapped field has a stable index in the range from {@code 0}
+     * (inclusive) to {@code size()} (exclusive), corresponding to the order of the underlying mapping.
+     */
+    public final int size() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the logical names of the mapped fields in the order of their indices.
+     */
+    public final List<String> names() {
+        return names;
+    }
+
+    /**
+     * Returns the index of the field mapped by a given logical name or {@code -1} if there is no such field.
+     * <p>
+     * Consumers that access a field repeatedly may resolve its index once and use the index-based methods
+     * (like {@link #get(Object, int)} or {@link #getInt(Object, int)}) afterwards.
+     */
+    public final int indexOf(final String name) {
+        final Slot slot = index.get(name);
+        return (null == slot) ? -1 : slot.index();
+    }
+
+    /**
+     * Returns the logical name of the field with a given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public final String nameOf(final int index) {
+        return slots[index].name();
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance, primitive values boxed.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public final Object get(final T instance, final int index) {
+        return slots[index].get(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given value, primitive values boxed.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not applicable to the field.
+     */
+    public final T set(final T instance, final int index, final Object value) {
+        slots[index].set(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code boolean}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code boolean}.
+     * @see Field#getBoolean(Object)
+     */
+    public final boolean getBoolean(final T instance, final int index) {
+        return slots[index].getBoolean(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code boolean} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setBoolean(Object, boolean)
+     */
+    public final T setBoolean(final T instance, final int index, final boolean value) {
+        slots[index].setBoolean(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code byte}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code byte}.
+     * @see Field#getByte(Object)
+     */
+    public final byte getByte(final T instance, final int index) {
+        return slots[index].getByte(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code byte} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setByte(Object, byte)
+     */
+    public final T setByte(final T instance, final int index, final byte value) {
+        slots[index].setByte(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code short}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code short}.
+     * @see Field#getShort(Object)
+     */
+    public final short getShort(final T instance, final int index) {
+        return slots[index].getShort(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code short} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setShort(Object, short)
+     */
+    public final T setShort(final T instance, final int index, final short value) {
+        slots[index].setShort(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code char}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code char}.
+     * @see Field#getChar(Object)
+     */
+    public final char getChar(final T instance, final int index) {
+        return slots[index].getChar(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code char} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setChar(Object, char)
+     */
+    public final T setChar(final T instance, final int index, final char value) {
+        slots[index].setChar(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code int}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code int}.
+     * @see Field#getInt(Object)
+     */
+    public final int getInt(final T instance, final int index) {
+        return slots[index].getInt(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code int} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setInt(Object, int)
+     */
+    public final T setInt(final T instance, final int index, final int value) {
+        slots[index].setInt(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code long}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code long}.
+     * @see Field#getLong(Object)
+     */
+    public final long getLong(final T instance, final int index) {
+        return slots[index].getLong(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code long} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setLong(Object, long)
+     */
+    public final T setLong(final T instance, final int index, final long value) {
+        slots[index].setLong(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code float}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code float}.
+     * @see Field#getFloat(Object)
+     */
+    public final float getFloat(final T instance, final int index) {
+        return slots[index].getFloat(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code float} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setFloat(Object, float)
+     */
+    public final T setFloat(final T instance, final int index, final float value) {
+        slots[index].setFloat(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the value of the field with a given index of a given instance as {@code double}.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the field's value is not convertible to {@code double}.
+     * @see Field#getDouble(Object)
+     */
+    public final double getDouble(final T instance, final int index) {
+        return slots[index].getDouble(instance);
+    }
+
+    /**
+     * Sets the field with a given index of a given instance to a given {@code double} value.
+     *
+     * @return the instance.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalArgumentException  if the value is not convertible to the field's type.
+     * @see Field#setDouble(Object, double)
+     */
+    public final T setDouble(final T instance, final int index, final double value) {
+        slots[index].setDouble(instance, value);
+        return instance;
+    }
+
+    /**
+     * Returns the generic type of the field with a given index, resolved in the context of the underlying type.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @see Fields#genericType(Class, Field)
+     */
+    public final Type genericType(final int index) {
+        return GenericTypes.resolve(subjectClass, slots[index].field());
+    }
+
+    /**
+     * Returns the generic type of the field mapped by a given logical name, resolved in the context of the
+     * underlying type.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name.
+     * @see Fields#genericType(Class, Field)
+     */
+    public final Type genericType(final String name) {
+        return GenericTypes.resolve(subjectClass, slot(name).field());
+    }
+
+    /**
+     * Returns the {@link FieldAccessor} of the field mapped by a given logical name.
+     * <p>
+     * Accessors are created once on demand and cached by this mapper.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name.
+     */
+    public final FieldAccessor<T> accessor(final String name) {
+        return accessor(slot(name).index());
     }
 
-    private static Object get(final Field field, final Object origin) {
-        try {
-            return field.get(origin);
-        } catch (IllegalAccessException e) {
-            throw new IllegalArgumentException(format(CANNOT_GET_FIELD, field, origin), e);
+    final Slot slot(final String name) {
+        final Slot result = index.get(name);
+        if (null == result) {
+            throw new IllegalArgumentException(format(NO_SUCH_NAME, name));
         }
+        return result;
+    }
+
+    /**
+     * Returns the {@link FieldAccessor} of the field with a given index.
+     * <p>
+     * Accessors are created once on demand and cached by this mapper.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @SuppressWarnings("unchecked")
+    public final FieldAccessor<T> accessor(final int index) {
+        return (FieldAccessor<T>) slots[index].accessor();
+    }
+
+    /**
+     * Creates a new instance of the underlying type without running any of its constructors, if the platform
+     * allows to do so. Otherwise a constructor without parameters (if present) is used.
+     * <p>
+     * Without running a constructor, all fields of the result are initialized with the default values of their
+     * types ({@code null}, {@code 0} or {@code false}), regardless of any initializers.
+     *
+     * @throws IllegalArgumentException if the underlying type can not be instantiated that way.
+     */
+    public final T newInstance() {
+        return allocation().get();
+    }
+
+    /**
+     * Copies the fields of an original instance of the underlying type into a {@linkplain #newInstance() new}
+     * instance.
+     *
+     * @return the new instance.
+     */
+    public final T copy(final T origin) {
+        return copy(origin, newInstance());
     }
 
     /**
@@ -66,7 +471,9 @@ public final class FieldMapper<T> {
      * @return the target instance.
      */
     public final T copy(final T origin, final T target) {
-        mapping.forEach((name, field) -> set(field, target, get(field, origin)));
+        for (final Slot slot : slots) {
+            slot.copy(origin, target);
+        }
         return target;
     }
 
@@ -76,27 +483,349 @@ public final class FieldMapper<T> {
      * @return the target map.
      */
     public final <M extends Map<String, Object>> M map(final T origin, final M target) {
-        mapping.forEach((name, field) -> target.put(name, get(field, origin)));
+        for (final Slot slot : slots) {
+            target.put(slot.name(), slot.get(origin));
+        }
         return target;
     }
 
+    /**
+     * Copies the fields of a source instance of the underlying type to a target map, which must be a mutable map.
+     * In contrast to {@link #map(Object, Map)}, this descends into the fields of nested objects, using the
+     * {@link FieldMapper}s of their declared types, retrieved from the same {@link Factory} as this one.
+     * The keys of nested values are composed of the logical field names along the path, separated by dots
+     * (e.g. {@code "address.city.name"}).
+     * <p>
+     * Fields whose declared type is primitive, an array, an interface, an abstract class, an enum or a platform
+     * class (e.g. {@link String} or {@link java.util.Date}) are not descended into. The same applies to fields whose
+     * declared type is already being descended into on the path to the field. A {@code null} nested value results
+     * in a single entry mapping the field's (composed) key to {@code null}.
+     * <p>
+     * The nested plan is composed once per {@link FieldMapper}.
+     *
+     * @return the target map.
+     */
+    public final <M extends Map<String, Object>> M flatten(final T origin, final M target) {
+        return Nesting.flatten(nesting(), origin, target);
+    }
+
+    /**
+     * Copies the values of an original map with dotted keys, as produced by {@link #flatten(Object, Map)}, into a
+     * corresponding target instance of the underlying type.
+     * <p>
+     * Nested objects present in the target are updated in place, missing ones are created as
+     * {@linkplain #newInstance() new instances} of the declared field types. If the map contains the key of a nested
+     * field itself, the field is set to the associated value (typically {@code null}) instead.
+     *
+     * @return the target instance.
+     */
+    public final T unflatten(final Map<?, ?> origin, final T target) {
+        return Nesting.unflatten(nesting(), origin, target);
+    }
+
     /**
      * Copies the values of an original map into a corresponding target instance of the underlying type.
      *
      * @return the target instance.
      */
     public final T map(final Map<?, ?> origin, final T target) {
-        mapping.forEach((name, field) -> set(field, target, origin.get(name)));
+        for (final Slot slot : slots) {
+            slot.set(target, origin.get(slot.name()));
+        }
+        return target;
+    }
+
+    /**
+     * Copies the values of an original map into a {@linkplain #newInstance() new} instance of the underlying type.
+     *
+     * @return the new instance.
+     */
+    public final T map(final Map<?, ?> origin) {
+        return map(origin, newInstance());
+    }
+
+    /**
+     * Copies the values of an original map into a corresponding target instance of the underlying type, but only
+     * those values whose keys are present in the map. Other fields of the target remain unchanged. Keys that don't
+     * match any mapped field are ignored.
+     *
+     * @return the target instance.
+     * @see #patch(Map, Object, Unmapped)
+     */
+    public final T patch(final Map<?, ?> origin, final T target) {
+        return patch(origin, target, Unmapped.IGNORE);
+    }
+
+    /**
+     * Copies the values of an original map into a corresponding target instance of the underlying type, but only
+     * those values whose keys are present in the map. Other fields of the target remain unchanged. Keys that don't
+     * match any mapped field are passed to a given {@link Unmapped} policy.
+     * <p>
+     * Iterates the smaller side, either the entries of the map or the mapped fields. So patching a type with many
+     * fields by a map with only a few entries costs in proportion to the entries.
+     * <p>
+     * Caution: if the policy throws an exception, the target may be partially patched.
+     *
+     * @return the target instance.
+     */
+    public final T patch(final Map<?, ?> origin, final T target, final Unmapped unmapped) {
+        if (origin.size() <= slots.length) {
+            for (final Map.Entry<?, ?> entry : origin.entrySet()) {
+                final Slot slot = index.get(entry.getKey());
+                if (null == slot) {
+                    unmapped.accept(entry.getKey(), entry.getValue());
+                } else {
+                    slot.set(target, entry.getValue());
+                }
+            }
+        } else {
+            for (final Slot slot : slots) {
+                final Object value = origin.get(slot.name());
+                if (null != value || origin.containsKey(slot.name())) {
+                    slot.set(target, value);
+                }
+            }
+            for (final Map.Entry<?, ?> entry : origin.entrySet()) {
+                if (!index.containsKey(entry.getKey())) {
+                    unmapped.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Returns a new {@link Snapshot} stage of this mapper, using the field with a given logical name as version
+     * field and the {@linkplain Snapshot#DEFAULT_ATTEMPTS default} maximum number of attempts.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name or if that field is not a
+     *                                  {@code volatile int} or {@code long} field.
+     */
+    public final Snapshot<T> snapshot(final String versionName) {
+        return snapshot(versionName, Snapshot.DEFAULT_ATTEMPTS);
+    }
+
+    /**
+     * Returns a new {@link Snapshot} stage of this mapper, using the field with a given logical name as version
+     * field and a given maximum number of attempts.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name, if that field is not a
+     *                                  {@code volatile int} or {@code long} field or if attempts is not positive.
+     */
+    public final Snapshot<T> snapshot(final String versionName, final int attempts) {
+        return new Snapshot<>(this, slot(versionName), attempts);
+    }
+
+    /**
+     * Captures the current state of a given instance of the underlying type as a new {@link Checkpoint}.
+     *
+     * @see Checkpoint#restore(Object)
+     */
+    public final Checkpoint<T> checkpoint(final T origin) {
+        return new Checkpoint<>(this).capture(origin);
+    }
+
+    /**
+     * Returns a new {@link Projection} of this mapper, consisting of the fields with the given logical names.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by one of the given names.
+     */
+    public final Projection<T> projection(final String name, final String... fieldNames) {
+        final BitSet mask = new BitSet(slots.length);
+        for (final String fieldName : fieldNames) {
+            mask.set(slot(fieldName).index());
+        }
+        return new Projection<>(this, name, mask);
+    }
+
+    private Slot[] slots(final Projection<T> projection) {
+        if (this != projection.mapper()) {
+            throw new IllegalArgumentException(format("projection <%s> belongs to a different mapper", projection));
+        }
+        return projection.slots();
+    }
+
+    /**
+     * Copies the fields of a given {@link Projection} of an original instance of the underlying type into a
+     * corresponding target instance. Other fields of the target remain unchanged.
+     *
+     * @return the target instance.
+     * @throws IllegalArgumentException if the projection belongs to a different mapper.
+     */
+    public final T copy(final T origin, final T target, final Projection<T> projection) {
+        for (final Slot slot : slots(projection)) {
+            slot.copy(origin, target);
+        }
         return target;
     }
 
+    /**
+     * Copies the fields of a given {@link Projection} of a source instance of the underlying type to a target map,
+     * which must be a mutable map.
+     *
+     * @return the target map.
+     * @throws IllegalArgumentException if the projection belongs to a different mapper.
+     */
+    public final <M extends Map<String, Object>> M map(final T origin, final M target,
+                                                       final Projection<T> projection) {
+        for (final Slot slot : slots(projection)) {
+            target.put(slot.name(), slot.get(origin));
+        }
+        return target;
+    }
+
+    /**
+     * Determines the fields whose values differ between two instances of the underlying type.
+     * Primitive values are compared without boxing, other values as by {@link Object#equals(Object)}.
+     *
+     * @return a {@link Projection} named {@code "diff"}, consisting of the differing fields.
+     */
+    public final Projection<T> diff(final T one, final T other) {
+        return diff(one, other, slots);
+    }
+
+    /**
+     * Determines the fields of a given {@link Projection} whose values differ between two instances of the
+     * underlying type.
+     *
+     * @return a {@link Projection} named {@code "diff"}, consisting of the differing fields.
+     * @throws IllegalArgumentException if the projection belongs to a different mapper.
+     * @see #diff(Object, Object)
+     */
+    public final Projection<T> diff(final T one, final T other, final Projection<T> projection) {
+        return diff(one, other, slots(projection));
+    }
+
+    private Projection<T> diff(final T one, final T other, final Slot[] candidates) {
+        final BitSet mask = new BitSet(slots.length);
+        for (final Slot slot : candidates) {
+            if (!slot.equal(one, other)) {
+                mask.set(slot.index());
+            }
+        }
+        return new Projection<>(this, "diff", mask);
+    }
+
+    /**
+     * Returns a new {@link Conversion} stage of this mapper, that converts map values to the types of the mapped
+     * fields, using a given {@link Converters} registry.
+     */
+    public final Conversion<T> converting(final Converters converters) {
+        return new Conversion<>(this, converters, index);
+    }
+
+    /**
+     * Merges the fields of an original instance of the underlying type into a corresponding target instance
+     * according to a given {@link MergePolicy}.
+     *
+     * @return the target instance.
+     */
+    public final T merge(final T origin, final T target, final MergePolicy policy) {
+        policy.merge(slots, origin, target);
+        return target;
+    }
+
+    /**
+     * Merges each of some original instances of the underlying type into the target instance at the same position
+     * of a given list, according to a given {@link MergePolicy}.
+     *
+     * @throws IllegalArgumentException if the lists differ in size.
+     */
+    public final void mergeAll(final List<? extends T> origins, final List<? extends T> targets,
+                               final MergePolicy policy) {
+        final int size = origins.size();
+        if (size != targets.size()) {
+            throw new IllegalArgumentException(
+                    format("cannot merge %d origins into %d targets", size, targets.size()));
+        }
+        final Object event = FlightEvents.BULK.begin();
+        final Iterator<? extends T> targetIterator = targets.iterator();
+        for (final T origin : origins) {
+            policy.merge(slots, origin, targetIterator.next());
+        }
+        FlightEvents.BULK.commit(event, subjectClass, slots.length, "FieldMapper.mergeAll", size);
+    }
+
+    /**
+     * Resets all mapped fields of a target instance of the underlying type to the default values of their types
+     * ({@code null}, {@code 0} or {@code false}).
+     *
+     * @return the target instance.
+     */
+    public final T reset(final T target) {
+        for (final Slot slot : slots) {
+            slot.reset(target);
+        }
+        return target;
+    }
+
+    /**
+     * Returns a new {@link InstancePool} that recycles instances of the underlying type and creates
+     * {@linkplain #newInstance() new instances} when there are no recycled ones available.
+     * <p>
+     * Each thread keeps up to {@link InstancePool#DEFAULT_CAPACITY} released instances.
+     */
+    public final InstancePool<T> pool() {
+        return pool(this::newInstance);
+    }
+
+    /**
+     * Returns a new {@link InstancePool} that recycles instances of the underlying type, using a given
+     * {@link Supplier} to create new instances when there are no recycled ones available.
+     * <p>
+     * Each thread keeps up to {@link InstancePool#DEFAULT_CAPACITY} released instances.
+     */
+    public final InstancePool<T> pool(final Supplier<? extends T> newInstance) {
+        return pool(newInstance, InstancePool.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns a new {@link InstancePool} that recycles instances of the underlying type, using a given
+     * {@link Supplier} to create new instances when there are no recycled ones available.
+     *
+     * @param capacity The maximum number of released instances that each thread keeps for reuse.
+     */
+    public final InstancePool<T> pool(final Supplier<? extends T> newInstance, final int capacity) {
+        return new InstancePool<>(this, newInstance, capacity);
+    }
+
+    /**
+     * Defines a policy for map entries whose keys don't match any mapped field when
+     * {@linkplain #patch(Map, Object, Unmapped) patching} an instance.
+     */
+    @FunctionalInterface
+    public interface Unmapped {
+
+        /**
+         * Defines a policy that simply ignores unmapped entries.
+         */
+        Unmapped IGNORE = (key, value) -> {
+        };
+
+        /**
+         * Defines a policy that fails with an {@link IllegalArgumentException} on any unmapped entry.
+         */
+        Unmapped FAIL = (key, value) -> {
+            throw new IllegalArgumentException(format("no field mapped by key <%s> (value <%s>)", key, value));
+        };
+
+        /**
+         * Handles an entry whose key doesn't match any mapped field.
+         */
+        void accept(Object key, Object value);
+    }
+
     /**
      * Abstracts a factory for {@link FieldMapper} instances.
      */
     public interface Factory {
 
         /**
-         * Creates a new {@link FieldMapper} instance for a given type.
+         * Returns a {@link FieldMapper} for a given type.
+         * <p>
+         * The factories provided by {@link FieldMapper#factory(Function)} (including {@link FieldMapper#FACTORY})
+         * create a mapper only once per type and cache it. So they return the same instance each time they are
+         * asked for the same type, which is shared by all callers (and by the nested plans of other mappers).
          */
         <T> FieldMapper<T> mapperFor(Class<T> subjectClass);
     }
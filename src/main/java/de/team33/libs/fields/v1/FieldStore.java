@@ -0,0 +1,249 @@
+package de.team33.libs.fields.v1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.lang.String.format;
+
+/**
+ * An append-only, file-backed store of instances of a certain type, based on the fields mapped by a
+ * {@link FieldMapper}.
+ * <p>
+ * The store consists of a data file and an index file (the data file's name with the suffix
+ * {@value #INDEX_SUFFIX}), both memory-mapped. The index file holds the offset of each record, so
+ * {@linkplain #read(long, Object) reading} a record by its index costs O(1). Reopening a store only maps the
+ * files again, it does not parse any records.
+ * <p>
+ * Supported field types are all primitive types, their wrapper types, {@link String} and enum types.
+ * <p>
+ * Appending is serialized, reading may take place concurrently.
+ *
+ * @param <T> the type of interest
+ */
+public final class FieldStore<T> implements Closeable {
+
+    /**
+     * The suffix of the name of the index file, relative to the name of the data file.
+     */
+    public static final String INDEX_SUFFIX = ".index";
+
+    private static final String INCOMPATIBLE = "file <%s> was written with a different schema";
+    private static final String TOO_LARGE = "record of %d bytes exceeds the maximum of %d bytes";
+    private static final int DATA_SEGMENT = 1 << 26;
+    private static final int INDEX_SEGMENT = 1 << 23;
+    private static final int LENGTH = Integer.BYTES;
+    private static final int ENTRY = Long.BYTES;
+    private static final int SCHEMA_POSITION = 0;
+    private static final int SIZE_POSITION = 8;
+    private static final int HEADER = 16;
+
+    private final FieldMapper<T> mapper;
+    private final Codec[] codecs;
+    private final MappedFile data;
+    private final MappedFile index;
+    private volatile long size;
+    private long end;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private FieldStore(final FieldMapper<T> mapper, final Codec[] codecs,
+                       final MappedFile data, final MappedFile index) {
+        this.mapper = mapper;
+        this.codecs = codecs;
+        this.data = data;
+        this.index = index;
+        this.size = index.segment(0).getLong(SIZE_POSITION);
+        this.end = (0 == size) ? 0 : endOf(position(size - 1));
+    }
+
+    /**
+     * Opens a {@link FieldStore} on a given data file, using a given {@link FieldMapper} to derive its schema.
+     * Creates the data file and the index file if they don't exist yet.
+     *
+     * @throws IllegalArgumentException if the mapper maps a field of an unsupported type or if existing files were
+     *                                  written with a different schema.
+     * @throws IOException              if the files cannot be opened.
+     */
+    public static <T> FieldStore<T> open(final FieldMapper<T> mapper, final Path path) throws IOException {
+        final Codec[] codecs = Stream.of(mapper.slots()).map(Codec::of).toArray(Codec[]::new);
+        final long schema = schema(codecs);
+        final MappedFile data = new MappedFile(path, DATA_SEGMENT);
+        MappedFile index = null;
+        try {
+            index = new MappedFile(path.resolveSibling(path.getFileName() + INDEX_SUFFIX), INDEX_SEGMENT);
+            final ByteBuffer header = index.segment(0);
+            final long present = header.getLong(SCHEMA_POSITION);
+            if (0 == present) {
+                header.putLong(SCHEMA_POSITION, schema);
+            } else if (schema != present) {
+                throw new IllegalArgumentException(format(INCOMPATIBLE, path));
+            }
+            return new FieldStore<>(mapper, codecs, data, index);
+        } catch (IOException | RuntimeException | Error e) {
+            close(e, data, index);
+            throw e;
+        }
+    }
+
+    private static void close(final Throwable cause, final MappedFile... files) {
+        for (final MappedFile file : files) {
+            if (null != file) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    cause.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    private static long schema(final Codec[] codecs) {
+        final CRC32 crc = new CRC32();
+        for (final Codec codec : codecs) {
+            final String entry = codec.slot.name() + ":" + codec.slot.field().getType().getName() + ";";
+            crc.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return (1L << 32) | crc.getValue();
+    }
+
+    private long position(final long recordIndex) {
+        final long entry = HEADER + recordIndex * ENTRY;
+        return index.segment(entry).getLong(index.offset(entry));
+    }
+
+    private long endOf(final long position) {
+        return position + LENGTH + data.segment(position).getInt(data.offset(position));
+    }
+
+    /**
+     * Returns the number of records in this store.
+     */
+    public final long size() {
+        return size;
+    }
+
+    /**
+     * Appends a single instance as a new record.
+     *
+     * @return the index of the new record.
+     * @throws UncheckedIOException if the files cannot be extended.
+     * @see #append(Collection)
+     */
+    public final long append(final T instance) {
+        return append(Collections.singleton(instance));
+    }
+
+    /**
+     * Appends a batch of instances as new records. The records are forced to the storage device once per batch,
+     * before they get visible via the index.
+     *
+     * @return the index of the first new record.
+     * @throws IllegalArgumentException if an instance results in a record that exceeds the maximum record size.
+     * @throws UncheckedIOException     if the files cannot be extended.
+     */
+    public final synchronized long append(final Collection<? extends T> batch) {
+        final long first = size;
+        if (batch.isEmpty()) {
+            return first;
+        }
+        final Object event = FlightEvents.BULK.begin();
+        final long[] positions = new long[batch.size()];
+        long position = end;
+        int count = 0;
+        for (final T instance : batch) {
+            final ByteBuffer record = encode(instance);
+            final int length = LENGTH + record.remaining();
+            if (length > DATA_SEGMENT) {
+                throw new IllegalArgumentException(format(TOO_LARGE, length, DATA_SEGMENT));
+            }
+            if (data.offset(position) + length > DATA_SEGMENT) {
+                position += DATA_SEGMENT - data.offset(position);
+            }
+            final ByteBuffer segment = data.segment(position).duplicate();
+            segment.position(data.offset(position));
+            segment.putInt(record.remaining()).put(record);
+            positions[count++] = position;
+            position += length;
+        }
+        data.force(end, position);
+
+        for (int i = 0; i < count; ++i) {
+            final long entry = HEADER + (first + i) * ENTRY;
+            index.segment(entry).putLong(index.offset(entry), positions[i]);
+        }
+        index.force(HEADER + first * ENTRY, HEADER + (first + count) * ENTRY);
+        index.segment(0).putLong(SIZE_POSITION, first + count);
+        index.force(0, HEADER);
+
+        end = position;
+        size = first + count;
+        FlightEvents.BULK.commit(event, mapper.subjectClass(), codecs.length, "FieldStore.append", count);
+        return first;
+    }
+
+    private ByteBuffer encode(final T instance) {
+        while (true) {
+            scratch.clear();
+            try {
+                for (final Codec codec : codecs) {
+                    codec.encode(instance, scratch);
+                }
+                scratch.flip();
+                return scratch;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Reads a record by its index into a given target instance.
+     *
+     * @return the target instance.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the {@linkplain #size() size}.
+     */
+    public final T read(final long recordIndex, final T target) {
+        if (0 > recordIndex || recordIndex >= size) {
+            throw new IndexOutOfBoundsException(format("index %d out of [0, %d)", recordIndex, size));
+        }
+        final long position = position(recordIndex);
+        final int offset = data.offset(position);
+        final ByteBuffer buffer = data.segment(position).duplicate();
+        buffer.limit(offset + LENGTH + buffer.getInt(offset)).position(offset + LENGTH);
+        for (final Codec codec : codecs) {
+            codec.decode(buffer, target);
+        }
+        return target;
+    }
+
+    /**
+     * Reads a record by its index into a {@linkplain FieldMapper#newInstance() new instance}.
+     *
+     * @return the new instance.
+     * @see #read(long, Object)
+     */
+    public final T read(final long recordIndex) {
+        return read(recordIndex, mapper.newInstance());
+    }
+
+    /**
+     * Closes the underlying files. Mapped segments remain valid until they are garbage collected, but the store
+     * must not be used any further.
+     */
+    @Override
+    public final void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+}
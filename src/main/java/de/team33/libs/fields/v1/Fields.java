@@ -2,8 +2,11 @@ package de.team33.libs.fields.v1;
 
 import de.team33.libs.classes.v1.Classes;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -99,11 +102,36 @@ public final class Fields {
         return field.getDeclaringClass().getCanonicalName() + "." + field.getName();
     }
 
+    /**
+     * Returns the canonical instance of a given logical field name (or key), which is identical for all equal
+     * names.
+     * <p>
+     * All names and keys used by {@link #mapBy(Stream, Function)}, {@link FieldMapper} and the maps produced by it
+     * are canonical, so that lookups by canonical keys (including string literals, which are canonical as well)
+     * hit the identity fast path of {@link String#equals(Object)}.
+     */
+    public static String canonicalKey(final String name) {
+        return name.intern();
+    }
+
+    /**
+     * Determines the generic type of a given field, resolved in the context of a certain class: type variables
+     * declared by a generic superclass (or superinterface) of the context class are substituted by the actual type
+     * arguments bound in its class hierarchy. Unbound type variables remain unresolved.
+     * <p>
+     * Resolutions are computed once per context class and field and are cached.
+     */
+    public static Type genericType(final Class<?> contextClass, final Field field) {
+        return GenericTypes.resolve(contextClass, field);
+    }
+
     /**
      * Creates a {@link Map} by a {@link Stream} of {@link Field fields}. The keys in the result are to be understood
      * as logical names of the associated fields, but they do not necessarily have to match their
      * {@linkplain Field#getName() plain field name}.
      * <p>
+     * The result retains the order of the {@link Stream}. Its keys are {@linkplain #canonicalKey(String) canonical}.
+     * <p>
      * Any {@link Field} in the result will be {@link Field#setAccessible(boolean) set accessible}!
      *
      * @param fields A {@link Stream} of {@link Field}s.
@@ -113,7 +141,30 @@ public final class Fields {
     public static Map<String, Field> mapBy(final Stream<Field> fields,
                                            final Function<Field, String> naming) {
         return fields.peek(field -> field.setAccessible(true))
-                     .collect(toMap(naming, identity()));
+                     .collect(toMap(naming.andThen(Fields::canonicalKey), identity(), Fields::clash,
+                                    LinkedHashMap::new));
+    }
+
+    /**
+     * Creates a {@link Map} by a {@link Stream} of {@link Field fields} like {@link #mapBy(Stream, Function)}, but
+     * defers {@linkplain Field#setAccessible(boolean) setting the fields accessible} until they are retrieved from
+     * the result for the first time. The result is unmodifiable and thread-safe.
+     * <p>
+     * A {@link FieldMapper} built on such a mapping prepares each field only when it accesses the field for the
+     * first time.
+     *
+     * @param fields A {@link Stream} of {@link Field}s.
+     * @param naming A {@link Function} to get a logical field name by a {@link Field}.
+     * @throws IllegalStateException if the {@code naming} produces name clashes for different fields
+     */
+    public static Map<String, Field> lazyMapBy(final Stream<Field> fields,
+                                               final Function<Field, String> naming) {
+        return new LazyFieldMap(fields.collect(toMap(naming.andThen(Fields::canonicalKey), identity(),
+                                                     Fields::clash, LinkedHashMap::new)));
+    }
+
+    private static Field clash(final Field field, final Field other) {
+        throw new IllegalStateException(String.format("name clash for <%s> and <%s>", field, other));
     }
 
     /**
@@ -173,6 +224,29 @@ public final class Fields {
          * Those fields should be significant for a type with value semantics.
          */
         Filter SIGNIFICANT = field -> STATIC.or(TRANSIENT).or(SYNTHETIC).negate().test(field);
+
+        /**
+         * Returns a filter accepting all fields annotated with a given annotation type, either directly or by
+         * a meta-annotation (an annotation of one of its annotations, transitively).
+         * <p>
+         * The annotations of a class and its fields are looked up once per class, so the filter essentially costs a
+         * bit test per field.
+         */
+        static Filter annotatedWith(final Class<? extends Annotation> type) {
+            final int number = Annotations.number(type);
+            return field -> Annotations.isPresent(field, number);
+        }
+
+        /**
+         * Returns a filter accepting all fields whose declaring class is annotated with a given annotation type,
+         * either directly, by {@linkplain java.lang.annotation.Inherited inheritance} or by a meta-annotation.
+         *
+         * @see #annotatedWith(Class)
+         */
+        static Filter declaredInClassAnnotatedWith(final Class<? extends Annotation> type) {
+            final int number = Annotations.number(type);
+            return field -> Annotations.isPresentOnClass(field, number);
+        }
     }
 
     /**
@@ -291,5 +365,28 @@ public final class Fields {
          * superclasses, which are neither static nor transient.
          */
         Mapping SIGNIFICANT_DEEP = type -> mapBy(Streaming.SIGNIFICANT_DEEP.apply(type), Naming.compact(type));
+
+        /**
+         * Defines a {@link Mapping} like {@link #SIGNIFICANT_FLAT} that is {@linkplain #lazyMapBy(Stream, Function)
+         * lazy} regarding the preparation of the fields.
+         */
+        Mapping LAZY_SIGNIFICANT_FLAT = type -> lazyMapBy(Streaming.SIGNIFICANT_FLAT.apply(type), Naming.SIMPLE);
+
+        /**
+         * Defines a {@link Mapping} like {@link #SIGNIFICANT_DEEP} that is {@linkplain #lazyMapBy(Stream, Function)
+         * lazy} regarding the preparation of the fields.
+         */
+        Mapping LAZY_SIGNIFICANT_DEEP = type -> lazyMapBy(Streaming.SIGNIFICANT_DEEP.apply(type),
+                                                          Naming.compact(type));
+
+        /**
+         * Returns a {@link Mapping} that considers the fields declared by the underlying class or one of its
+         * superclasses, which are not static and {@linkplain Filter#annotatedWith(Class) annotated with} a given
+         * annotation type.
+         */
+        static Mapping annotatedWith(final Class<? extends Annotation> annotationType) {
+            final Filter filter = Filter.annotatedWith(annotationType);
+            return type -> mapBy(Streaming.INSTANCE_DEEP.apply(type).filter(filter), Naming.compact(type));
+        }
     }
 }
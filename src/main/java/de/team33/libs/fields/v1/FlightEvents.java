@@ -0,0 +1,333 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Custom JDK Flight Recorder events, defined dynamically via {@code jdk.jfr.EventFactory} so that this library
+ * neither depends on {@code jdk.jfr} at compile time nor at runtime: on a JVM without JFR, all events are no-ops.
+ * <p>
+ * Each event carries the subject class, its number of mapped fields, a strategy and its duration. Bulk events also
+ * carry the number of processed items. An event is only created if its type is enabled in a running recording, and
+ * only committed if its duration exceeds the threshold, which defaults to the value of the system property
+ * {@code de.team33.libs.fields.jfr.threshold} or {@code "1 ms"} and may be overridden by recording settings.
+ * <p>
+ * The event types are defined only once the flight recorder gets initialized, so that an application that never
+ * records does not load the bulk of {@code jdk.jfr}. Until then, {@link #begin()} costs a single null check. If the
+ * recorder is not yet initialized when this class gets initialized, a {@code jdk.jfr.FlightRecorderListener} is
+ * registered by a short-lived daemon thread to get notified later, keeping its setup off the caller's path.
+ */
+final class FlightEvents {
+
+    private static final String PREFIX = "de.team33.libs.fields.";
+    private static final String THRESHOLD = System.getProperty(PREFIX + "jfr.threshold", "1 ms");
+    private static final String[] CATEGORY = {"lib-fields"};
+
+    /**
+     * Emitted when a {@link Fields.Mapping} is resolved for a class by a {@link FieldMapper.Factory}.
+     */
+    static final FlightEvents MAPPING = new FlightEvents("MappingResolution", "Mapping Resolution", false);
+
+    /**
+     * Emitted when a {@link FieldMapper} is constructed.
+     */
+    static final FlightEvents CONSTRUCTION = new FlightEvents("MapperConstruction", "Mapper Construction", false);
+
+    /**
+     * Emitted when a bulk operation has processed a number of items.
+     */
+    static final FlightEvents BULK = new FlightEvents("BulkOperation", "Bulk Operation", true);
+
+    static {
+        Listener.start();
+    }
+
+    private final String name;
+    private final String label;
+    private final boolean bulk;
+    private volatile Type type = null;
+
+    private FlightEvents(final String name, final String label, final boolean bulk) {
+        this.name = PREFIX + name;
+        this.label = label;
+        this.bulk = bulk;
+    }
+
+    /**
+     * Defines the event types, if not yet done. Called when the flight recorder gets initialized.
+     */
+    private static synchronized void define() {
+        final Platform platform = Platform.load();
+        if (null != platform) {
+            for (final FlightEvents events : new FlightEvents[]{MAPPING, CONSTRUCTION, BULK}) {
+                if (null == events.type) {
+                    events.type = platform.create(events.name, events.label, events.bulk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines a readable name of a given mapping strategy: the name of the matching {@link Fields.Mapping}
+     * constant, if any, or else the name of its class.
+     */
+    static String strategy(final Function<?, ?> mapping) {
+        return Stream.of(Fields.Mapping.class.getFields())
+                     .filter(field -> Modifier.isStatic(field.getModifiers()))
+                     .filter(field -> {
+                         try {
+                             return mapping == field.get(null);
+                         } catch (IllegalAccessException e) {
+                             return false;
+                         }
+                     })
+                     .map(Field::getName)
+                     .findAny()
+                     .orElseGet(() -> mapping.getClass().getName());
+    }
+
+    /**
+     * Begins a new event if its type is enabled in a running recording.
+     *
+     * @return the new event or {@code null} if its type is not enabled or JFR is not available.
+     */
+    final Object begin() {
+        final Type current = type;
+        return (null == current) ? null : current.platform.begin(current.factory, current.eventType);
+    }
+
+    /**
+     * Ends a given event (as returned by {@link #begin()}, possibly {@code null}) and commits it if its duration
+     * exceeds the threshold.
+     */
+    final void commit(final Object event, final Class<?> subject, final int fieldCount, final String strategy) {
+        commit(event, subject, fieldCount, strategy, 0);
+    }
+
+    /**
+     * Ends a given bulk event (as returned by {@link #begin()}, possibly {@code null}) and commits it if its
+     * duration exceeds the threshold.
+     */
+    final void commit(final Object event, final Class<?> subject, final int fieldCount, final String strategy,
+                      final long items) {
+        if (null != event) {
+            type.platform.commit(event, bulk
+                    ? new Object[]{subject, fieldCount, strategy, items}
+                    : new Object[]{subject, fieldCount, strategy});
+        }
+    }
+
+    /**
+     * A defined event type: its factory and its {@code jdk.jfr.EventType}.
+     */
+    private static final class Type {
+
+        private final Platform platform;
+        private final Object factory;
+        private final Object eventType;
+
+        private Type(final Platform platform, final Object factory, final Object eventType) {
+            this.platform = platform;
+            this.factory = factory;
+            this.eventType = eventType;
+        }
+    }
+
+    /**
+     * A {@code jdk.jfr.FlightRecorderListener}, implemented reflectively, that defines the event types as soon as
+     * the flight recorder gets initialized (immediately, if it is already initialized when registering).
+     */
+    private static final class Listener implements InvocationHandler, Runnable {
+
+        private static final String RECORDER = "jdk.jfr.FlightRecorder";
+        private static final String LISTENER = "jdk.jfr.FlightRecorderListener";
+
+        private static void start() {
+            try {
+                final ClassLoader loader = ClassLoader.getSystemClassLoader();
+                final Class<?> recorderClass = Class.forName(RECORDER, false, loader);
+                if ((Boolean) recorderClass.getMethod("isInitialized").invoke(null)) {
+                    define();
+                } else {
+                    final Thread thread = new Thread(new Listener(), FlightEvents.class.getName());
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                // JFR is not available: all events remain no-ops
+            }
+        }
+
+        /**
+         * Registers a new listener.
+         */
+        @Override
+        public final void run() {
+            try {
+                final ClassLoader loader = ClassLoader.getSystemClassLoader();
+                final Class<?> listenerClass = Class.forName(LISTENER, false, loader);
+                final Object listener = Proxy.newProxyInstance(loader, new Class<?>[]{listenerClass}, this);
+                Class.forName(RECORDER, false, loader).getMethod("addListener", listenerClass).invoke(null, listener);
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                // JFR is not available: all events remain no-ops
+            }
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            switch (method.getName()) {
+            case "recorderInitialized":
+                define();
+                return null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return FlightEvents.class.getName() + ".Listener";
+            default:
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The reflective bridge to {@code jdk.jfr}.
+     */
+    private static final class Platform {
+
+        private final Constructor<?> annotationElement;
+        private final Constructor<?> valueDescriptor;
+        private final MethodHandle create;
+        private final MethodHandle eventTypeOf;
+        private final MethodHandle isEnabled;
+        private final MethodHandle newEvent;
+        private final MethodHandle begin;
+        private final MethodHandle end;
+        private final MethodHandle shouldCommit;
+        private final MethodHandle set;
+        private final MethodHandle commit;
+        private final Class<? extends Annotation> name;
+        private final Class<? extends Annotation> label;
+        private final Class<? extends Annotation> category;
+        private final Class<? extends Annotation> threshold;
+
+        private Platform() throws ReflectiveOperationException {
+            final ClassLoader loader = ClassLoader.getSystemClassLoader();
+            final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory", false, loader);
+            final Class<?> eventClass = Class.forName("jdk.jfr.Event", false, loader);
+            final Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType", false, loader);
+            final Class<?> elementClass = Class.forName("jdk.jfr.AnnotationElement", false, loader);
+            final Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor", false, loader);
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final MethodType toVoid = methodType(void.class, Object.class);
+            this.annotationElement = elementClass.getConstructor(Class.class, Object.class);
+            this.valueDescriptor = descriptorClass.getConstructor(Class.class, String.class);
+            this.create = lookup.findStatic(factoryClass, "create", methodType(factoryClass, List.class, List.class))
+                                .asType(methodType(Object.class, List.class, List.class));
+            this.eventTypeOf = lookup.findVirtual(factoryClass, "getEventType", methodType(eventTypeClass))
+                                     .asType(methodType(Object.class, Object.class));
+            this.isEnabled = lookup.findVirtual(eventTypeClass, "isEnabled", methodType(boolean.class))
+                                   .asType(methodType(boolean.class, Object.class));
+            this.newEvent = lookup.findVirtual(factoryClass, "newEvent", methodType(eventClass))
+                                  .asType(methodType(Object.class, Object.class));
+            this.begin = lookup.findVirtual(eventClass, "begin", methodType(void.class)).asType(toVoid);
+            this.end = lookup.findVirtual(eventClass, "end", methodType(void.class)).asType(toVoid);
+            this.shouldCommit = lookup.findVirtual(eventClass, "shouldCommit", methodType(boolean.class))
+                                      .asType(methodType(boolean.class, Object.class));
+            this.set = lookup.findVirtual(eventClass, "set", methodType(void.class, int.class, Object.class))
+                             .asType(methodType(void.class, Object.class, int.class, Object.class));
+            this.commit = lookup.findVirtual(eventClass, "commit", methodType(void.class)).asType(toVoid);
+            this.name = annotation("jdk.jfr.Name", loader);
+            this.label = annotation("jdk.jfr.Label", loader);
+            this.category = annotation("jdk.jfr.Category", loader);
+            this.threshold = annotation("jdk.jfr.Threshold", loader);
+        }
+
+        private static Class<? extends Annotation> annotation(final String className, final ClassLoader loader)
+                throws ClassNotFoundException {
+            return Class.forName(className, false, loader).asSubclass(Annotation.class);
+        }
+
+        private static Platform load() {
+            try {
+                return new Platform();
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                return null;
+            }
+        }
+
+        private Object element(final Class<? extends Annotation> type, final Object value)
+                throws ReflectiveOperationException {
+            return annotationElement.newInstance(type, value);
+        }
+
+        private Object descriptor(final Class<?> type, final String fieldName) throws ReflectiveOperationException {
+            return valueDescriptor.newInstance(type, fieldName);
+        }
+
+        /**
+         * Creates an event factory and returns it together with its event type, or {@code null} on failure.
+         */
+        private Type create(final String eventName, final String eventLabel, final boolean bulk) {
+            try {
+                final List<Object> annotations = Arrays.asList(element(name, eventName),
+                                                               element(label, eventLabel),
+                                                               element(category, CATEGORY),
+                                                               element(threshold, THRESHOLD));
+                final List<Object> fields = new ArrayList<>(Arrays.asList(descriptor(Class.class, "subjectClass"),
+                                                                          descriptor(int.class, "fieldCount"),
+                                                                          descriptor(String.class, "strategy")));
+                if (bulk) {
+                    fields.add(descriptor(long.class, "items"));
+                }
+                final Object result = create.invokeExact((List<?>) annotations, (List<?>) fields);
+                return new Type(this, result, (Object) eventTypeOf.invokeExact(result));
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        private Object begin(final Object factory, final Object eventType) {
+            try {
+                if (!(boolean) isEnabled.invokeExact(eventType)) {
+                    return null;
+                }
+                final Object result = (Object) newEvent.invokeExact(factory);
+                begin.invokeExact(result);
+                return result;
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        private void commit(final Object event, final Object[] values) {
+            try {
+                end.invokeExact(event);
+                if ((boolean) shouldCommit.invokeExact(event)) {
+                    for (int index = 0; index < values.length; ++index) {
+                        set.invokeExact(event, index, values[index]);
+                    }
+                    commit.invokeExact(event);
+                }
+            } catch (Throwable e) {
+                // events must never affect the instrumented operation
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the generic types of fields in the context of a certain class, substituting the type variables of
+ * generic superclasses (and superinterfaces) by the actual type arguments bound in the class hierarchy.
+ * <p>
+ * The bindings of a context class and the resolved types of its fields are computed once and cached.
+ */
+final class GenericTypes {
+
+    private static final ClassValue<Context> CONTEXTS = new ClassValue<Context>() {
+        @Override
+        protected Context computeValue(final Class<?> type) {
+            return new Context(type);
+        }
+    };
+
+    private GenericTypes() {
+    }
+
+    /**
+     * Returns the generic type of a given field, resolved in the context of a given class.
+     */
+    static Type resolve(final Class<?> context, final Field field) {
+        return CONTEXTS.get(context).resolve(field);
+    }
+
+    private static Type substitute(final Type type, final Map<TypeVariable<?>, Type> bindings) {
+        if (type instanceof TypeVariable) {
+            return bindings.getOrDefault(type, type);
+        }
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterized = (ParameterizedType) type;
+            return new Parameterized(substitute(parameterized.getOwnerType(), bindings),
+                                     (Class<?>) parameterized.getRawType(),
+                                     substitute(parameterized.getActualTypeArguments(), bindings));
+        }
+        if (type instanceof GenericArrayType) {
+            final Type component = substitute(((GenericArrayType) type).getGenericComponentType(), bindings);
+            return (component instanceof Class)
+                    ? Array.newInstance((Class<?>) component, 0).getClass()
+                    : new GenericArray(component);
+        }
+        if (type instanceof WildcardType) {
+            final WildcardType wildcard = (WildcardType) type;
+            return new Wildcard(substitute(wildcard.getUpperBounds(), bindings),
+                                substitute(wildcard.getLowerBounds(), bindings));
+        }
+        return type;
+    }
+
+    private static Type[] substitute(final Type[] types, final Map<TypeVariable<?>, Type> bindings) {
+        return Stream.of(types)
+                     .map(type -> substitute(type, bindings))
+                     .toArray(Type[]::new);
+    }
+
+    private static String toString(final Type[] types, final String delimiter) {
+        return Stream.of(types)
+                     .map(Type::getTypeName)
+                     .collect(Collectors.joining(delimiter));
+    }
+
+    private static final class Context {
+
+        private final Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+        private final Map<Field, Type> resolved = new ConcurrentHashMap<>();
+
+        private Context(final Class<?> subject) {
+            bind(subject);
+        }
+
+        private void bind(final Class<?> type) {
+            if (null != type) {
+                bind(type.getGenericSuperclass());
+                Stream.of(type.getGenericInterfaces()).forEach(this::bind);
+            }
+        }
+
+        private void bind(final Type type) {
+            if (type instanceof ParameterizedType) {
+                final ParameterizedType parameterized = (ParameterizedType) type;
+                final Class<?> raw = (Class<?>) parameterized.getRawType();
+                final TypeVariable<?>[] variables = raw.getTypeParameters();
+                final Type[] arguments = parameterized.getActualTypeArguments();
+                for (int index = 0; index < variables.length; ++index) {
+                    bindings.putIfAbsent(variables[index], substitute(arguments[index], bindings));
+                }
+                bind(raw);
+            } else if (type instanceof Class) {
+                bind((Class<?>) type);
+            }
+        }
+
+        private Type resolve(final Field field) {
+            return resolved.computeIfAbsent(field, any -> substitute(field.getGenericType(), bindings));
+        }
+    }
+
+    private static final class Parameterized implements ParameterizedType {
+
+        private final Type owner;
+        private final Class<?> raw;
+        private final Type[] arguments;
+
+        private Parameterized(final Type owner, final Class<?> raw, final Type[] arguments) {
+            this.owner = owner;
+            this.raw = raw;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return raw;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return owner;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ParameterizedType)) {
+                return false;
+            }
+            final ParameterizedType other = (ParameterizedType) obj;
+            return raw.equals(other.getRawType()) && Objects.equals(owner, other.getOwnerType())
+                    && Arrays.equals(arguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(arguments) ^ Objects.hashCode(owner) ^ raw.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return raw.getTypeName() + "<" + GenericTypes.toString(arguments, ", ") + ">";
+        }
+    }
+
+    private static final class GenericArray implements GenericArrayType {
+
+        private final Type component;
+
+        private GenericArray(final Type component) {
+            this.component = component;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return component;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (this == obj) || ((obj instanceof GenericArrayType)
+                    && component.equals(((GenericArrayType) obj).getGenericComponentType()));
+        }
+
+        @Override
+        public int hashCode() {
+            return component.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return component.getTypeName() + "[]";
+        }
+    }
+
+    private static final class Wildcard implements WildcardType {
+
+        private final Type[] upper;
+        private final Type[] lower;
+
+        private Wildcard(final Type[] upper, final Type[] lower) {
+            this.upper = upper;
+            this.lower = lower;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upper.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lower.clone();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof WildcardType)) {
+                return false;
+            }
+            final WildcardType other = (WildcardType) obj;
+            return Arrays.equals(upper, other.getUpperBounds()) && Arrays.equals(lower, other.getLowerBounds());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(upper) ^ Arrays.hashCode(lower);
+        }
+
+        @Override
+        public String toString() {
+            return (0 < lower.length)
+                    ? "? super " + GenericTypes.toString(lower, " & ")
+                    : (0 == upper.length || Object.class.equals(upper[0]))
+                    ? "?"
+                    : "? extends " + GenericTypes.toString(upper, " & ");
+        }
+    }
+}
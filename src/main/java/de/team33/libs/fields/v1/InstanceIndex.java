@@ -0,0 +1,358 @@
+package de.team33.libs.fields.v1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * A secondary index over a collection of instances of a certain type, keyed by the value of a single mapped field.
+ * <p>
+ * A {@linkplain #hash(FieldMapper, String) hash index} supports equality lookups in constant time, a
+ * {@linkplain #sorted(FieldMapper, String) sorted index} additionally supports range lookups in logarithmic time.
+ * Values of primitive fields are read without boxing and normalized to {@code long} keys (preserving the order of
+ * floating point values), so that a hash index over a primitive field stores and looks up keys without boxing at
+ * all. A sorted index boxes the distinct keys of a primitive field for its tree.
+ * <p>
+ * Instances are indexed by identity. As an index can not notice that an indexed instance is mutated, any mutation
+ * of the indexed field must be followed by {@link #update(Object)}. Indexes are not thread-safe.
+ *
+ * @param <T> the type of the indexed instances
+ */
+public abstract class InstanceIndex<T> {
+
+    private static final String NOT_COMPARABLE = "field <%s> is neither primitive nor comparable";
+
+    private final Class<T> subjectClass;
+    final Slot slot;
+    final boolean primitive;
+    private final Map<T, Key> keys = new IdentityHashMap<>();
+
+    private InstanceIndex(final FieldMapper<T> mapper, final String name) {
+        this.subjectClass = mapper.subjectClass();
+        this.slot = mapper.slot(name);
+        this.primitive = (Slot.Kind.REFERENCE != slot.kind());
+    }
+
+    /**
+     * Returns a new, empty hash index over the field mapped by a given logical name.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name.
+     */
+    public static <T> Hash<T> hash(final FieldMapper<T> mapper, final String name) {
+        return new Hash<>(mapper, name);
+    }
+
+    /**
+     * Returns a new, empty sorted index over the field mapped by a given logical name, which must be primitive or
+     * of a {@link Comparable} type. Instances whose field is {@code null} are indexed but never part of a range.
+     *
+     * @throws IllegalArgumentException if there is no field mapped by the given name or if the field is neither
+     *                                  primitive nor comparable.
+     */
+    public static <T> Sorted<T> sorted(final FieldMapper<T> mapper, final String name) {
+        return new Sorted<>(mapper, name);
+    }
+
+    private static long sortable(final long bits) {
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static long sortable(final int bits) {
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the key of the underlying (primitive) field of a given instance.
+     */
+    final long primitiveKey(final Object instance) {
+        switch (slot.kind()) {
+        case FLOAT:
+            return sortable(Float.floatToIntBits(slot.getFloat(instance)));
+        case DOUBLE:
+            return sortable(Double.doubleToLongBits(slot.getDouble(instance)));
+        default:
+            return slot.getBits(instance);
+        }
+    }
+
+    /**
+     * Normalizes a given value (of the type of the underlying primitive field or its wrapper) to a key.
+     */
+    final long primitiveKeyOf(final Object value) {
+        switch (slot.kind()) {
+        case BOOLEAN:
+            return ((Boolean) value) ? 1L : 0L;
+        case CHAR:
+            return (Character) value;
+        case FLOAT:
+            return sortable(Float.floatToIntBits(((Number) value).floatValue()));
+        case DOUBLE:
+            return sortable(Double.doubleToLongBits(((Number) value).doubleValue()));
+        default:
+            return ((Number) value).longValue();
+        }
+    }
+
+    private Key key(final T instance) {
+        return primitive ? new Key(primitiveKey(instance), null) : new Key(0L, slot.get(instance));
+    }
+
+    /**
+     * Returns the number of indexed instances.
+     */
+    public final int size() {
+        return keys.size();
+    }
+
+    /**
+     * Adds a given instance to this index.
+     *
+     * @return {@code true} if the instance was added, {@code false} if it was already indexed.
+     */
+    public final boolean add(final T instance) {
+        return add(instance, key(instance));
+    }
+
+    private boolean add(final T instance, final Key key) {
+        if (keys.containsKey(instance)) {
+            return false;
+        }
+        keys.put(instance, key);
+        bucket(key.bits, key.value, true).add(instance);
+        return true;
+    }
+
+    /**
+     * Adds some given instances to this index. The (reflective) reading of the keys runs in parallel.
+     */
+    public final void addAll(final Collection<? extends T> instances) {
+        final Object event = FlightEvents.BULK.begin();
+        final List<T> stable = new ArrayList<>(instances);
+        final Key[] newKeys = stable.parallelStream()
+                                    .map(this::key)
+                                    .toArray(Key[]::new);
+        for (int index = 0; index < newKeys.length; ++index) {
+            add(stable.get(index), newKeys[index]);
+        }
+        FlightEvents.BULK.commit(event, subjectClass, 1, "InstanceIndex.addAll", newKeys.length);
+    }
+
+    /**
+     * Removes a given instance from this index.
+     *
+     * @return {@code true} if the instance was removed, {@code false} if it was not indexed.
+     */
+    public final boolean remove(final T instance) {
+        final Key key = keys.remove(instance);
+        if (null == key) {
+            return false;
+        }
+        drop(key, instance);
+        return true;
+    }
+
+    /**
+     * Re-indexes a given (indexed) instance after its indexed field has been mutated.
+     *
+     * @return {@code true} if the key of the instance has changed, {@code false} if it has not changed or if the
+     * instance is not indexed.
+     */
+    public final boolean update(final T instance) {
+        final Key key = keys.get(instance);
+        if (null == key) {
+            return false;
+        }
+        if (primitive) {
+            final long bits = primitiveKey(instance);
+            if (bits == key.bits) {
+                return false;
+            }
+            drop(key, instance);
+            key.bits = bits;
+        } else {
+            final Object value = slot.get(instance);
+            if (Objects.equals(value, key.value)) {
+                return false;
+            }
+            drop(key, instance);
+            key.value = value;
+        }
+        bucket(key.bits, key.value, true).add(instance);
+        return true;
+    }
+
+    private void drop(final Key key, final T instance) {
+        final Set<T> bucket = bucket(key.bits, key.value, false);
+        bucket.remove(instance);
+        if (bucket.isEmpty()) {
+            removeBucket(key.bits, key.value);
+        }
+    }
+
+    /**
+     * Returns the indexed instances whose field equals a given value (of the type of the field or its wrapper).
+     *
+     * @return an unmodifiable view, which may be empty.
+     */
+    public final Set<T> find(final Object value) {
+        final Set<T> result = primitive
+                ? ((null == value) ? null : bucket(primitiveKeyOf(value), null, false))
+                : bucket(0L, value, false);
+        return (null == result) ? Collections.emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    static <T> Set<T> newBucket() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns the bucket of a given key, which is given as primitive key for a primitive field or as value for a
+     * reference field.
+     */
+    abstract Set<T> bucket(long bits, Object value, boolean create);
+
+    abstract void removeBucket(long bits, Object value);
+
+    /**
+     * The key of an indexed instance, mutable to be updated in place.
+     */
+    private static final class Key {
+
+        private long bits;
+        private Object value;
+
+        private Key(final long bits, final Object value) {
+            this.bits = bits;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A hash index over a single mapped field.
+     */
+    public static final class Hash<T> extends InstanceIndex<T> {
+
+        private final LongMap<Set<T>> primitives = new LongMap<>();
+        private final Map<Object, Set<T>> references = new HashMap<>();
+
+        private Hash(final FieldMapper<T> mapper, final String name) {
+            super(mapper, name);
+        }
+
+        /**
+         * Returns the indexed instances whose (primitive) field equals a given value, without boxing.
+         * Applicable to integral fields only.
+         *
+         * @return an unmodifiable view, which may be empty.
+         * @throws IllegalArgumentException if the underlying field is not of an integral type.
+         */
+        public final Set<T> find(final long value) {
+            if (!primitive || Slot.Kind.FLOAT == slot.kind() || Slot.Kind.DOUBLE == slot.kind()) {
+                throw new IllegalArgumentException(format("field <%s> is not integral", slot.field()));
+            }
+            final Set<T> result = primitives.get(value);
+            return (null == result) ? Collections.emptySet() : Collections.unmodifiableSet(result);
+        }
+
+        @Override
+        final Set<T> bucket(final long bits, final Object value, final boolean create) {
+            if (primitive) {
+                Set<T> result = primitives.get(bits);
+                if (null == result && create) {
+                    result = newBucket();
+                    primitives.put(bits, result);
+                }
+                return result;
+            }
+            return create ? references.computeIfAbsent(value, any -> newBucket()) : references.get(value);
+        }
+
+        @Override
+        final void removeBucket(final long bits, final Object value) {
+            if (primitive) {
+                primitives.remove(bits);
+            } else {
+                references.remove(value);
+            }
+        }
+    }
+
+    /**
+     * A sorted index over a single mapped field.
+     */
+    public static final class Sorted<T> extends InstanceIndex<T> {
+
+        private final NavigableMap<Object, Set<T>> buckets = new TreeMap<>();
+        private final Set<T> nulls = newBucket();
+
+        private Sorted(final FieldMapper<T> mapper, final String name) {
+            super(mapper, name);
+            if (!primitive && !Comparable.class.isAssignableFrom(slot.field().getType())) {
+                throw new IllegalArgumentException(format(NOT_COMPARABLE, slot.field()));
+            }
+        }
+
+        /**
+         * Returns the indexed instances whose field value lies within a given range, in ascending order of their
+         * field values.
+         *
+         * @param from the lower bound (inclusive), a value of the type of the field or its wrapper.
+         * @param to   the upper bound (exclusive), a value of the type of the field or its wrapper.
+         */
+        public final List<T> range(final Object from, final Object to) {
+            final Object fromKey = primitive ? (Object) primitiveKeyOf(from) : from;
+            final Object toKey = primitive ? (Object) primitiveKeyOf(to) : to;
+            return collect(buckets.subMap(fromKey, true, toKey, false));
+        }
+
+        /**
+         * Returns the indexed instances whose field value is at least a given value, in ascending order of their
+         * field values.
+         */
+        public final List<T> atLeast(final Object from) {
+            return collect(buckets.tailMap(primitive ? (Object) primitiveKeyOf(from) : from, true));
+        }
+
+        /**
+         * Returns the indexed instances whose field value is less than a given value, in ascending order of their
+         * field values.
+         */
+        public final List<T> lessThan(final Object to) {
+            return collect(buckets.headMap(primitive ? (Object) primitiveKeyOf(to) : to, false));
+        }
+
+        private static <T> List<T> collect(final Map<Object, Set<T>> selection) {
+            final List<T> result = new ArrayList<>();
+            selection.values().forEach(result::addAll);
+            return result;
+        }
+
+        @Override
+        final Set<T> bucket(final long bits, final Object value, final boolean create) {
+            final Object key = primitive ? (Object) bits : value;
+            if (null == key) {
+                return nulls;
+            }
+            return create ? buckets.computeIfAbsent(key, any -> newBucket()) : buckets.get(key);
+        }
+
+        @Override
+        final void removeBucket(final long bits, final Object value) {
+            if (primitive) {
+                buckets.remove(bits);
+            } else if (null != value) {
+                buckets.remove(value);
+            }
+        }
+    }
+}
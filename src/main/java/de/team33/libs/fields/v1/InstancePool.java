@@ -0,0 +1,72 @@
+package de.team33.libs.fields.v1;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A pool of recycled instances of a certain type, backed by a {@link FieldMapper}.
+ * <p>
+ * Released instances are {@linkplain FieldMapper#reset(Object) reset} by the mapper and kept per thread, so
+ * {@link #take()} and {@link #release(Object)} scale across threads without contention. An instance released by
+ * one thread may be handed out again by that thread only.
+ * <p>
+ * To get an instance use {@link FieldMapper#pool(Supplier)} or {@link FieldMapper#pool(Supplier, int)}.
+ *
+ * @param <T> the type of interest
+ */
+public final class InstancePool<T> {
+
+    /**
+     * The number of released instances that each thread keeps by default.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final FieldMapper<T> mapper;
+    private final Supplier<? extends T> newInstance;
+    private final int capacity;
+    private final ThreadLocal<Deque<T>> stock = ThreadLocal.withInitial(ArrayDeque::new);
+
+    InstancePool(final FieldMapper<T> mapper, final Supplier<? extends T> newInstance, final int capacity) {
+        if (0 > capacity) {
+            throw new IllegalArgumentException("capacity must not be negative but was " + capacity);
+        }
+        this.mapper = mapper;
+        this.newInstance = newInstance;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns a recycled instance, if available, or a new one. A recycled instance has all mapped fields reset to
+     * the default values of their types.
+     */
+    public final T take() {
+        final T result = stock.get().pollLast();
+        return (null == result) ? newInstance.get() : result;
+    }
+
+    /**
+     * Returns an instance to this pool. The instance gets reset immediately, so it no longer holds any references
+     * via its mapped fields. The caller must not use the instance any further.
+     * <p>
+     * If the current thread already keeps as many instances as the capacity of this pool, the instance is
+     * simply dropped.
+     */
+    public final void release(final T instance) {
+        final Deque<T> deque = stock.get();
+        if (deque.size() < capacity) {
+            deque.addLast(mapper.reset(instance));
+        }
+    }
+
+    /**
+     * Copies the values of an original map into a {@linkplain #take() recycled or new} instance.
+     *
+     * @return the target instance.
+     * @see FieldMapper#map(Map, Object)
+     */
+    public final T map(final Map<?, ?> origin) {
+        return mapper.map(origin, take());
+    }
+}
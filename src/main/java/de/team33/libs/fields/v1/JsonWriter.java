@@ -0,0 +1,356 @@
+package de.team33.libs.fields.v1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A tool that writes instances of a certain type as JSON objects, one member per field mapped by a
+ * {@link FieldMapper}, in the mapper's fixed field order.
+ * <p>
+ * A {@link JsonWriter} walks the mapper's precompiled plan. The keys are encoded once per logical name when the
+ * writer is created. Primitive values are formatted directly into a byte buffer without boxing. Floating point
+ * values are formatted by way of their {@linkplain Double#toString(double) string representation}, though, which
+ * is a short-lived {@link String} per value.
+ * <p>
+ * Nested objects are written as nested JSON objects, as far as the mapper would
+ * {@linkplain FieldMapper#flatten(Object, Map) flatten} them. Other values are written as follows:
+ * {@link CharSequence}s, {@link Character}s and enums as strings, {@link Number}s as numbers (non-finite
+ * floating point values as {@code null}), {@link Boolean}s as literals, arrays and {@link Iterable}s as arrays,
+ * {@link Map}s as objects (with {@linkplain String#valueOf(Object) stringified} keys) and any other objects by their
+ * {@linkplain Object#toString() string representation}.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @param <T> the type of interest
+ */
+public final class JsonWriter<T> {
+
+    private static final int CAPACITY = 8192;
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(CAPACITY));
+
+    private final Class<T> subjectClass;
+    private final Member[] members;
+
+    private JsonWriter(final Class<T> subjectClass, final Member[] members) {
+        this.subjectClass = subjectClass;
+        this.members = members;
+    }
+
+    /**
+     * Returns a new {@link JsonWriter} based on a given {@link FieldMapper}.
+     */
+    public static <T> JsonWriter<T> of(final FieldMapper<T> mapper) {
+        return new JsonWriter<>(mapper.subjectClass(), Member.compile(mapper.nesting()));
+    }
+
+    /**
+     * Writes a single instance as JSON object to a given {@link OutputStream}.
+     * The stream is neither flushed nor closed.
+     */
+    public final void write(final T instance, final OutputStream out) throws IOException {
+        final ByteBuffer buffer = lease();
+        try {
+            final ByteSink sink = ByteSink.of(out, buffer);
+            putObject(sink, members, instance);
+            sink.flush();
+        } finally {
+            BUFFER.set(buffer);
+        }
+    }
+
+    /**
+     * Writes some instances as JSON array of objects to a given {@link OutputStream}.
+     * The stream is neither flushed nor closed.
+     */
+    public final void writeArray(final Iterable<? extends T> instances, final OutputStream out) throws IOException {
+        final ByteBuffer buffer = lease();
+        try {
+            final ByteSink sink = ByteSink.of(out, buffer);
+            putArray(sink, instances);
+            sink.flush();
+        } finally {
+            BUFFER.set(buffer);
+        }
+    }
+
+    /**
+     * Returns a single instance as JSON object, encoded as UTF-8.
+     */
+    public final byte[] toBytes(final T instance) {
+        final ByteSink sink = ByteSink.growing(CAPACITY);
+        try {
+            putObject(sink, members, instance);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sink.toByteArray();
+    }
+
+    /**
+     * Returns some instances as JSON array of objects, encoded as UTF-8.
+     */
+    public final byte[] toBytes(final Iterable<? extends T> instances) {
+        final ByteSink sink = ByteSink.growing(CAPACITY);
+        try {
+            putArray(sink, instances);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sink.toByteArray();
+    }
+
+    /**
+     * Takes the current thread's buffer, so that a nested write on the same thread (e.g. from within a value's
+     * {@link Object#toString()}) cannot overwrite pending bytes but gets a buffer of its own.
+     */
+    private static ByteBuffer lease() {
+        final ByteBuffer buffer = BUFFER.get();
+        if (null == buffer) {
+            return ByteBuffer.allocate(CAPACITY);
+        }
+        BUFFER.set(null);
+        buffer.clear();
+        return buffer;
+    }
+
+    private void putArray(final ByteSink sink, final Iterable<? extends T> instances) throws IOException {
+        final Object event = FlightEvents.BULK.begin();
+        long count = 0;
+        sink.put((byte) '[');
+        for (final T instance : instances) {
+            if (0 < count) {
+                sink.put((byte) ',');
+            }
+            putObject(sink, members, instance);
+            ++count;
+        }
+        sink.put((byte) ']');
+        FlightEvents.BULK.commit(event, subjectClass, members.length, "JsonWriter.writeArray", count);
+    }
+
+    private static void putObject(final ByteSink sink, final Member[] members, final Object origin)
+            throws IOException {
+        if (null == origin) {
+            sink.put(NULL);
+            return;
+        }
+        sink.put((byte) '{');
+        for (int index = 0; index < members.length; ++index) {
+            if (0 < index) {
+                sink.put((byte) ',');
+            }
+            final Member member = members[index];
+            sink.put(member.key);
+            putMember(sink, member, origin);
+        }
+        sink.put((byte) '}');
+    }
+
+    private static void putMember(final ByteSink sink, final Member member, final Object origin)
+            throws IOException {
+        final Slot slot = member.slot;
+        switch (slot.kind()) {
+        case BOOLEAN:
+            sink.put(slot.getBoolean(origin) ? TRUE : FALSE);
+            break;
+        case BYTE:
+            sink.putDecimal(slot.getByte(origin));
+            break;
+        case SHORT:
+            sink.putDecimal(slot.getShort(origin));
+            break;
+        case CHAR:
+            putString(sink, slot.getChar(origin));
+            break;
+        case INT:
+            sink.putDecimal(slot.getInt(origin));
+            break;
+        case LONG:
+            sink.putDecimal(slot.getLong(origin));
+            break;
+        case FLOAT:
+            putFloating(sink, slot.getFloat(origin));
+            break;
+        case DOUBLE:
+            putFloating(sink, slot.getDouble(origin));
+            break;
+        default:
+            if (null == member.children) {
+                putValue(sink, slot.get(origin));
+            } else {
+                putObject(sink, member.children, slot.get(origin));
+            }
+            break;
+        }
+    }
+
+    private static void putFloating(final ByteSink sink, final double value) throws IOException {
+        if (Double.isFinite(value)) {
+            sink.putText(Double.toString(value));
+        } else {
+            sink.put(NULL);
+        }
+    }
+
+    private static void putFloating(final ByteSink sink, final float value) throws IOException {
+        if (Float.isFinite(value)) {
+            sink.putText(Float.toString(value));
+        } else {
+            sink.put(NULL);
+        }
+    }
+
+    private static void putValue(final ByteSink sink, final Object value) throws IOException {
+        if (null == value) {
+            sink.put(NULL);
+        } else if (value instanceof CharSequence) {
+            putString(sink, (CharSequence) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            sink.putDecimal(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            putFloating(sink, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            sink.putText(value.toString());
+        } else if (value instanceof Boolean) {
+            sink.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Character) {
+            putString(sink, (Character) value);
+        } else if (value instanceof Enum) {
+            putString(sink, ((Enum<?>) value).name());
+        } else if (value instanceof Iterable) {
+            putIterable(sink, (Iterable<?>) value);
+        } else if (value instanceof Map) {
+            putMap(sink, (Map<?, ?>) value);
+        } else if (value.getClass().isArray()) {
+            putArrayValue(sink, value);
+        } else {
+            putString(sink, value.toString());
+        }
+    }
+
+    private static void putIterable(final ByteSink sink, final Iterable<?> values) throws IOException {
+        sink.put((byte) '[');
+        boolean first = true;
+        for (final Object value : values) {
+            if (!first) {
+                sink.put((byte) ',');
+            }
+            first = false;
+            putValue(sink, value);
+        }
+        sink.put((byte) ']');
+    }
+
+    private static void putMap(final ByteSink sink, final Map<?, ?> map) throws IOException {
+        sink.put((byte) '{');
+        boolean first = true;
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                sink.put((byte) ',');
+            }
+            first = false;
+            putString(sink, String.valueOf(entry.getKey()));
+            sink.put((byte) ':');
+            putValue(sink, entry.getValue());
+        }
+        sink.put((byte) '}');
+    }
+
+    private static void putArrayValue(final ByteSink sink, final Object array) throws IOException {
+        sink.put((byte) '[');
+        for (int index = 0, length = Array.getLength(array); index < length; ++index) {
+            if (0 < index) {
+                sink.put((byte) ',');
+            }
+            putValue(sink, Array.get(array, index));
+        }
+        sink.put((byte) ']');
+    }
+
+    private static void putString(final ByteSink sink, final char value) throws IOException {
+        sink.put((byte) '"');
+        putEscaped(sink, value);
+        sink.put((byte) '"');
+    }
+
+    private static void putString(final ByteSink sink, final CharSequence text) throws IOException {
+        sink.put((byte) '"');
+        final int length = text.length();
+        for (int index = 0; index < length; ++index) {
+            final char c = text.charAt(index);
+            if (Character.isHighSurrogate(c) && index + 1 < length
+                    && Character.isLowSurrogate(text.charAt(index + 1))) {
+                sink.putCodePoint(Character.toCodePoint(c, text.charAt(++index)));
+            } else {
+                putEscaped(sink, c);
+            }
+        }
+        sink.put((byte) '"');
+    }
+
+    private static void putEscaped(final ByteSink sink, final char c) throws IOException {
+        switch (c) {
+        case '"':
+        case '\\':
+            sink.put((byte) '\\').put((byte) c);
+            break;
+        case '\n':
+            sink.put((byte) '\\').put((byte) 'n');
+            break;
+        case '\r':
+            sink.put((byte) '\\').put((byte) 'r');
+            break;
+        case '\t':
+            sink.put((byte) '\\').put((byte) 't');
+            break;
+        default:
+            if (c < 0x20 || Character.isSurrogate(c)) {
+                sink.put((byte) '\\').put((byte) 'u')
+                    .put(HEX[(c >> 12) & 0xF]).put(HEX[(c >> 8) & 0xF])
+                    .put(HEX[(c >> 4) & 0xF]).put(HEX[c & 0xF]);
+            } else {
+                sink.putCodePoint(c);
+            }
+            break;
+        }
+    }
+
+    private static final class Member {
+
+        private final Slot slot;
+        private final byte[] key;
+        private final Member[] children;
+
+        private Member(final Nesting nesting) {
+            this.slot = nesting.slot();
+            this.key = key(slot.name());
+            this.children = (null == nesting.children()) ? null : compile(nesting.children());
+        }
+
+        private static Member[] compile(final Nesting[] plan) {
+            return Stream.of(plan).map(Member::new).toArray(Member[]::new);
+        }
+
+        private static byte[] key(final String name) {
+            final ByteSink sink = ByteSink.growing(name.length() + 8);
+            try {
+                putString(sink, name);
+                sink.put((byte) ':');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return sink.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.reflect.Field;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An unmodifiable {@link Map} of logical names to {@link Field}s, whose names and order are determined in advance,
+ * but whose fields are {@linkplain Field#setAccessible(boolean) set accessible} only on first retrieval.
+ * <p>
+ * Retrieving a field that is already prepared costs a single volatile read, no locks are involved.
+ * A {@link FieldMapper} built on such a map does not retrieve its fields this way but prepares them on demand
+ * within its own accessors.
+ */
+final class LazyFieldMap extends AbstractMap<String, Field> {
+
+    private final String[] names;
+    private final Field[] fields;
+    private final Map<String, Integer> index;
+    private final AtomicReferenceArray<Field> prepared;
+
+    LazyFieldMap(final Map<String, Field> origin) {
+        this.names = origin.keySet().toArray(new String[0]);
+        this.fields = origin.values().toArray(new Field[0]);
+        this.index = new HashMap<>(names.length * 2);
+        for (int position = 0; position < names.length; ++position) {
+            index.put(names[position], position);
+        }
+        this.prepared = new AtomicReferenceArray<>(fields.length);
+    }
+
+    private Field prepared(final int position) {
+        final Field result = prepared.get(position);
+        if (null != result) {
+            return result;
+        }
+        fields[position].setAccessible(true);
+        prepared.set(position, fields[position]);
+        return fields[position];
+    }
+
+    /**
+     * Returns the logical names in the order of this map.
+     */
+    final String[] names() {
+        return names.clone();
+    }
+
+    /**
+     * Returns the fields in the order of this map, without preparing them.
+     */
+    final Field[] rawFields() {
+        return fields.clone();
+    }
+
+    @Override
+    public final int size() {
+        return names.length;
+    }
+
+    @Override
+    public final boolean containsKey(final Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public final Field get(final Object key) {
+        final Integer position = index.get(key);
+        return (null == position) ? null : prepared(position);
+    }
+
+    @Override
+    public final Set<Entry<String, Field>> entrySet() {
+        return new AbstractSet<Entry<String, Field>>() {
+            @Override
+            public Iterator<Entry<String, Field>> iterator() {
+                return new Iterator<Entry<String, Field>>() {
+                    private int position = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < names.length;
+                    }
+
+                    @Override
+                    public Entry<String, Field> next() {
+                        if (position >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final int current = position++;
+                        return new SimpleImmutableEntry<>(names[current], prepared(current));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package de.team33.libs.fields.v1;
+
+/**
+ * A hash map of primitive {@code long} keys to non-null values, using open addressing with linear probing.
+ * Lookups neither box keys nor allocate. Not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+final class LongMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private Object[] values = new Object[MIN_CAPACITY];
+    private int size;
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private int slot(final long key) {
+        final int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (null != values[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    final int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    final V get(final long key) {
+        return (V) values[slot(key)];
+    }
+
+    /**
+     * Associates a given (non-null) value with a given key.
+     */
+    final void put(final long key, final V value) {
+        final int index = slot(key);
+        if (null == values[index]) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                put(key, value);
+                return;
+            }
+            ++size;
+            keys[index] = key;
+        }
+        values[index] = value;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new long[2 * oldKeys.length];
+        values = new Object[2 * oldValues.length];
+        for (int index = 0; index < oldKeys.length; ++index) {
+            if (null != oldValues[index]) {
+                final int target = slot(oldKeys[index]);
+                keys[target] = oldKeys[index];
+                values[target] = oldValues[index];
+            }
+        }
+    }
+
+    /**
+     * Removes the association of a given key, if present, shifting back subsequent entries of the same probe
+     * sequence so that no tombstones are needed.
+     */
+    final void remove(final long key) {
+        final int mask = keys.length - 1;
+        int hole = slot(key);
+        if (null == values[hole]) {
+            return;
+        }
+        values[hole] = null;
+        --size;
+        for (int index = (hole + 1) & mask; null != values[index]; index = (index + 1) & mask) {
+            final int home = hash(keys[index]) & mask;
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                values[index] = null;
+                hole = index;
+            }
+        }
+    }
+}
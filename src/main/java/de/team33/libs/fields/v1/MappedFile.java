@@ -0,0 +1,81 @@
+package de.team33.libs.fields.v1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A file that is memory-mapped in segments of a fixed size. Segments are mapped on demand, which implicitly grows
+ * the file as needed.
+ */
+final class MappedFile implements Closeable {
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    MappedFile(final Path path, final int segmentSize) throws IOException {
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the (mapped) segment that contains a given position.
+     *
+     * @throws UncheckedIOException if the segment cannot be mapped.
+     */
+    final ByteBuffer segment(final long position) {
+        final int index = (int) (position / segmentSize);
+        final MappedByteBuffer[] current = segments;
+        return (index < current.length) ? current[index] : map(index);
+    }
+
+    private synchronized MappedByteBuffer map(final int index) {
+        MappedByteBuffer[] current = segments;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, index + 1);
+            for (int i = segments.length; i <= index; ++i) {
+                try {
+                    current[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            segments = current;
+        }
+        return current[index];
+    }
+
+    /**
+     * Returns the offset of a given position within its segment.
+     */
+    final int offset(final long position) {
+        return (int) (position % segmentSize);
+    }
+
+    /**
+     * Forces any changes made to the segments containing the given range of positions to be written to the
+     * storage device.
+     */
+    final void force(final long from, final long to) {
+        final MappedByteBuffer[] current = segments;
+        final int last = (int) (Math.max(from, to - 1) / segmentSize);
+        for (int index = (int) (from / segmentSize); index <= last && index < current.length; ++index) {
+            current[index].force();
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        channel.close();
+    }
+}
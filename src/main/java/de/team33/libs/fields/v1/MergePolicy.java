@@ -0,0 +1,97 @@
+package de.team33.libs.fields.v1;
+
+/**
+ * Defines how {@link FieldMapper#merge(Object, Object, MergePolicy)} combines the fields of an original instance
+ * with those of a target instance.
+ * <p>
+ * The predefined policies are evaluated within a tight loop per policy, primitive fields without boxing.
+ * A {@linkplain #resolving(Resolver) resolving} policy is evaluated per field by a custom {@link Resolver}.
+ */
+public final class MergePolicy {
+
+    /**
+     * A policy that copies each origin value unless it is {@code null}. Primitive values are always copied.
+     */
+    public static final MergePolicy NON_NULL = new MergePolicy(Mode.NON_NULL, null);
+
+    /**
+     * A policy that copies each origin value unless it is the default value of its type ({@code null}, {@code 0}
+     * or {@code false}).
+     */
+    public static final MergePolicy NON_DEFAULT = new MergePolicy(Mode.NON_DEFAULT, null);
+
+    /**
+     * A policy that copies each origin value only if the target field still holds the default value of its type
+     * ({@code null}, {@code 0} or {@code false}).
+     */
+    public static final MergePolicy TARGET_DEFAULT = new MergePolicy(Mode.TARGET_DEFAULT, null);
+
+    private final Mode mode;
+    private final Resolver resolver;
+
+    private MergePolicy(final Mode mode, final Resolver resolver) {
+        this.mode = mode;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Returns a policy that determines the resulting value of each field by a given {@link Resolver}.
+     */
+    public static MergePolicy resolving(final Resolver resolver) {
+        return new MergePolicy(Mode.RESOLVING, resolver);
+    }
+
+    /**
+     * Merges the fields represented by some given slots of a given origin into a given target.
+     */
+    final void merge(final Slot[] slots, final Object origin, final Object target) {
+        switch (mode) {
+        case NON_NULL:
+            for (final Slot slot : slots) {
+                if (Slot.Kind.REFERENCE == slot.kind()) {
+                    slot.copyUnlessDefault(origin, target);
+                } else {
+                    slot.copy(origin, target);
+                }
+            }
+            break;
+        case NON_DEFAULT:
+            for (final Slot slot : slots) {
+                slot.copyUnlessDefault(origin, target);
+            }
+            break;
+        case TARGET_DEFAULT:
+            for (final Slot slot : slots) {
+                if (slot.isDefault(target)) {
+                    slot.copy(origin, target);
+                }
+            }
+            break;
+        default:
+            for (final Slot slot : slots) {
+                slot.set(target, resolver.resolve(slot.name(), slot.get(origin), slot.get(target)));
+            }
+            break;
+        }
+    }
+
+    private enum Mode {
+        NON_NULL,
+        NON_DEFAULT,
+        TARGET_DEFAULT,
+        RESOLVING
+    }
+
+    /**
+     * Resolves the resulting value of a single field when merging.
+     */
+    @FunctionalInterface
+    public interface Resolver {
+
+        /**
+         * Returns the value to be set to the target field of a given logical name, given the values of the origin
+         * and target fields.
+         */
+        Object resolve(String name, Object originValue, Object targetValue);
+    }
+}
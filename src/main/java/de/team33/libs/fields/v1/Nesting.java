@@ -0,0 +1,111 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Represents a mapped field as part of a precompiled, nested plan to flatten instances into maps with dotted keys
+ * and vice versa.
+ * <p>
+ * A plan descends into the declared types of fields that are not considered as leaves: primitive types, arrays,
+ * interfaces, abstract classes, enums and classes of the platform ({@code java.*}, {@code javax.*}, ...) are
+ * leaves, as well as types that are already being expanded on the path to a field (to prevent endless recursion).
+ */
+final class Nesting {
+
+    private static final String SEPARATOR = ".";
+    private static final String[] PLATFORM_PREFIXES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private final Slot slot;
+    private final String key;
+    private final FieldMapper<?> mapper;
+    private final Nesting[] children;
+
+    private Nesting(final Slot slot, final String key, final FieldMapper<?> mapper, final Nesting[] children) {
+        this.slot = slot;
+        this.key = key;
+        this.mapper = mapper;
+        this.children = children;
+    }
+
+    final Slot slot() {
+        return slot;
+    }
+
+    /**
+     * Returns the nested plan of the underlying field or {@code null} if the field is a leaf.
+     */
+    final Nesting[] children() {
+        return children;
+    }
+
+    /**
+     * Composes a nested plan for a given {@link FieldMapper}, using a given {@link FieldMapper.Factory} to get the
+     * mappers of nested types.
+     */
+    static Nesting[] compose(final FieldMapper<?> mapper, final FieldMapper.Factory factory) {
+        final Set<Class<?>> path = new HashSet<>();
+        path.add(mapper.subjectClass());
+        return compose(mapper, factory, "", path);
+    }
+
+    private static Nesting[] compose(final FieldMapper<?> mapper, final FieldMapper.Factory factory,
+                                     final String prefix, final Set<Class<?>> path) {
+        return Stream.of(mapper.slots())
+                     .map(slot -> compose(slot, factory, Fields.canonicalKey(prefix + slot.name()), path))
+                     .toArray(Nesting[]::new);
+    }
+
+    private static Nesting compose(final Slot slot, final FieldMapper.Factory factory,
+                                   final String key, final Set<Class<?>> path) {
+        final Class<?> type = slot.field().getType();
+        if (isLeaf(type) || !path.add(type)) {
+            return new Nesting(slot, key, null, null);
+        }
+        try {
+            final FieldMapper<?> mapper = factory.mapperFor(type);
+            return (0 == mapper.slots().length)
+                    ? new Nesting(slot, key, null, null)
+                    : new Nesting(slot, key, mapper, compose(mapper, factory, key + SEPARATOR, path));
+        } finally {
+            path.remove(type);
+        }
+    }
+
+    private static boolean isLeaf(final Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return true;
+        }
+        final String name = type.getName();
+        return Stream.of(PLATFORM_PREFIXES).anyMatch(name::startsWith);
+    }
+
+    static <M extends Map<String, Object>> M flatten(final Nesting[] plan, final Object origin, final M target) {
+        for (final Nesting node : plan) {
+            final Object value = node.slot.get(origin);
+            if (null == node.children || null == value) {
+                target.put(node.key, value);
+            } else {
+                flatten(node.children, value, target);
+            }
+        }
+        return target;
+    }
+
+    static <T> T unflatten(final Nesting[] plan, final Map<?, ?> origin, final T target) {
+        for (final Nesting node : plan) {
+            if (null == node.children || origin.containsKey(node.key)) {
+                node.slot.set(target, origin.get(node.key));
+            } else {
+                final Object present = node.slot.get(target);
+                final Object value = (null == present) ? node.mapper.newInstance() : present;
+                node.slot.set(target, unflatten(node.children, origin, value));
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,85 @@
+package de.team33.libs.fields.v1;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A named, precompiled subset of the fields mapped by a certain {@link FieldMapper}.
+ * <p>
+ * Operations like {@link FieldMapper#copy(Object, Object, Projection)} or
+ * {@link FieldMapper#map(Object, java.util.Map, Projection)} only process the fields of a projection, so their cost
+ * is proportional to the size of the projection rather than the number of all mapped fields.
+ * <p>
+ * To get an instance use {@link FieldMapper#projection(String, String...)} or
+ * {@link FieldMapper#diff(Object, Object)}. Instances are immutable.
+ *
+ * @param <T> the type of interest
+ */
+public final class Projection<T> {
+
+    private final FieldMapper<T> mapper;
+    private final String name;
+    private final BitSet mask;
+    private final Slot[] slots;
+
+    Projection(final FieldMapper<T> mapper, final String name, final BitSet mask) {
+        final Slot[] all = mapper.slots();
+        this.mapper = mapper;
+        this.name = name;
+        this.mask = (BitSet) mask.clone();
+        this.slots = mask.stream().mapToObj(index -> all[index]).toArray(Slot[]::new);
+    }
+
+    final FieldMapper<T> mapper() {
+        return mapper;
+    }
+
+    final Slot[] slots() {
+        return slots;
+    }
+
+    /**
+     * Returns the name of this projection.
+     */
+    public final String name() {
+        return name;
+    }
+
+    /**
+     * Returns the number of fields of this projection.
+     */
+    public final int size() {
+        return slots.length;
+    }
+
+    /**
+     * Determines if this projection contains the field with a given index.
+     */
+    public final boolean contains(final int index) {
+        return mask.get(index);
+    }
+
+    /**
+     * Returns the indices of the fields of this projection as {@link BitSet}.
+     */
+    public final BitSet mask() {
+        return (BitSet) mask.clone();
+    }
+
+    /**
+     * Returns the logical names of the fields of this projection in the order of their indices.
+     */
+    public final List<String> names() {
+        return Collections.unmodifiableList(IntStream.range(0, slots.length)
+                                                     .mapToObj(index -> slots[index].name())
+                                                     .collect(Collectors.toList()));
+    }
+
+    @Override
+    public final String toString() {
+        return name + names();
+    }
+}
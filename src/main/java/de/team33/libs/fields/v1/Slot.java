@@ -0,0 +1,608 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Represents a single mapped {@link Field} as part of the precompiled plan of a {@link FieldMapper}.
+ */
+final class Slot {
+
+    private static final String CANNOT_GET_FIELD = "cannot get value of field <%s> of instance <%s>";
+    private static final String CANNOT_SET_FIELD = "cannot Set field <%s> of instance <%s> to value <%s>";
+    private static final String NOT_PRIMITIVE = "field <%s> is not primitive";
+
+    private final int index;
+    private final String name;
+    private final Field field;
+    private final Kind kind;
+    private volatile FieldAccessor<?> accessor;
+    private volatile boolean prepared = false;
+
+    Slot(final int index, final String name, final Field field) {
+        this.index = index;
+        this.name = name;
+        this.field = field;
+        this.kind = Kind.of(field.getType());
+    }
+
+    final int index() {
+        return index;
+    }
+
+    final String name() {
+        return name;
+    }
+
+    final Field field() {
+        return field;
+    }
+
+    final Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Returns the {@link FieldAccessor} of the underlying field, which is created once on demand.
+     */
+    final FieldAccessor<?> accessor() {
+        if (null == accessor) {
+            prepare();
+            accessor = new FieldAccessor<>(this);
+        }
+        return accessor;
+    }
+
+    /**
+     * Makes the underlying field accessible, if not yet done.
+     * <p>
+     * Fields of a {@linkplain Fields#lazyMapBy(java.util.stream.Stream, java.util.function.Function) lazy mapping}
+     * are not prepared in advance. Instead, the accessors of a slot prepare the field as soon as an access fails
+     * for the first time, so that the regular path needs no additional check.
+     */
+    final void prepare() {
+        if (!prepared) {
+            field.setAccessible(true);
+            prepared = true;
+        }
+    }
+
+    /**
+     * Prepares the underlying field after an access has failed, if not yet done (possibly concurrently by another
+     * thread, whose access has failed as well). The access is to be retried once afterwards.
+     */
+    private void prepare(final IllegalAccessException cause, final Supplier<String> message) {
+        if (!prepared) {
+            try {
+                field.setAccessible(true);
+                prepared = true;
+            } catch (RuntimeException e) {
+                e.addSuppressed(cause);
+                throw new IllegalArgumentException(message.get(), e);
+            }
+        }
+    }
+
+    private void prepareGet(final IllegalAccessException cause, final Object origin) {
+        prepare(cause, () -> format(CANNOT_GET_FIELD, field, origin));
+    }
+
+    private void prepareSet(final IllegalAccessException cause, final Object target, final Object value) {
+        prepare(cause, () -> format(CANNOT_SET_FIELD, field, target, value));
+    }
+
+    private IllegalArgumentException failedGet(final IllegalAccessException cause, final Object origin) {
+        return new IllegalArgumentException(format(CANNOT_GET_FIELD, field, origin), cause);
+    }
+
+    private IllegalArgumentException failedSet(final IllegalAccessException cause, final Object target,
+                                               final Object value) {
+        return new IllegalArgumentException(format(CANNOT_SET_FIELD, field, target, value), cause);
+    }
+
+    final Object get(final Object origin) {
+        try {
+            return field.get(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.get(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void set(final Object target, final Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    /**
+     * Copies the value of the underlying field from a given origin to a given target, primitive values without
+     * boxing.
+     */
+    final void copy(final Object origin, final Object target) {
+        switch (kind) {
+        case BOOLEAN:
+            setBoolean(target, getBoolean(origin));
+            break;
+        case BYTE:
+            setByte(target, getByte(origin));
+            break;
+        case SHORT:
+            setShort(target, getShort(origin));
+            break;
+        case CHAR:
+            setChar(target, getChar(origin));
+            break;
+        case INT:
+            setInt(target, getInt(origin));
+            break;
+        case LONG:
+            setLong(target, getLong(origin));
+            break;
+        case FLOAT:
+            setFloat(target, getFloat(origin));
+            break;
+        case DOUBLE:
+            setDouble(target, getDouble(origin));
+            break;
+        default:
+            set(target, get(origin));
+            break;
+        }
+    }
+
+    /**
+     * Returns the value of the underlying (primitive) field of a given origin, losslessly packed into a
+     * {@code long}.
+     *
+     * @see #setBits(Object, long)
+     */
+    final long getBits(final Object origin) {
+        switch (kind) {
+        case BOOLEAN:
+            return getBoolean(origin) ? 1L : 0L;
+        case BYTE:
+            return getByte(origin);
+        case SHORT:
+            return getShort(origin);
+        case CHAR:
+            return getChar(origin);
+        case INT:
+            return getInt(origin);
+        case LONG:
+            return getLong(origin);
+        case FLOAT:
+            return Float.floatToRawIntBits(getFloat(origin));
+        case DOUBLE:
+            return Double.doubleToRawLongBits(getDouble(origin));
+        default:
+            throw new IllegalArgumentException(format(NOT_PRIMITIVE, field));
+        }
+    }
+
+    /**
+     * Sets the underlying (primitive) field of a given target to a value packed by {@link #getBits(Object)}.
+     */
+    final void setBits(final Object target, final long bits) {
+        switch (kind) {
+        case BOOLEAN:
+            setBoolean(target, 0L != bits);
+            break;
+        case BYTE:
+            setByte(target, (byte) bits);
+            break;
+        case SHORT:
+            setShort(target, (short) bits);
+            break;
+        case CHAR:
+            setChar(target, (char) bits);
+            break;
+        case INT:
+            setInt(target, (int) bits);
+            break;
+        case LONG:
+            setLong(target, bits);
+            break;
+        case FLOAT:
+            setFloat(target, Float.intBitsToFloat((int) bits));
+            break;
+        case DOUBLE:
+            setDouble(target, Double.longBitsToDouble(bits));
+            break;
+        default:
+            throw new IllegalArgumentException(format(NOT_PRIMITIVE, field));
+        }
+    }
+
+    /**
+     * Determines if the values of the underlying field of two given instances are equal, primitive values without
+     * boxing. Floating point values are compared as by {@link Double#equals(Object)} or {@link Float#equals(Object)}.
+     */
+    final boolean equal(final Object one, final Object other) {
+        switch (kind) {
+        case BOOLEAN:
+            return getBoolean(one) == getBoolean(other);
+        case BYTE:
+            return getByte(one) == getByte(other);
+        case SHORT:
+            return getShort(one) == getShort(other);
+        case CHAR:
+            return getChar(one) == getChar(other);
+        case INT:
+            return getInt(one) == getInt(other);
+        case LONG:
+            return getLong(one) == getLong(other);
+        case FLOAT:
+            return Float.floatToIntBits(getFloat(one)) == Float.floatToIntBits(getFloat(other));
+        case DOUBLE:
+            return Double.doubleToLongBits(getDouble(one)) == Double.doubleToLongBits(getDouble(other));
+        default:
+            return Objects.equals(get(one), get(other));
+        }
+    }
+
+    /**
+     * Determines if the underlying field of a given instance holds the default value of its type ({@code null},
+     * {@code 0} or {@code false}), primitive values without boxing. A floating point {@code -0.0} is not considered
+     * as default.
+     */
+    final boolean isDefault(final Object instance) {
+        switch (kind) {
+        case BOOLEAN:
+            return !getBoolean(instance);
+        case BYTE:
+            return 0 == getByte(instance);
+        case SHORT:
+            return 0 == getShort(instance);
+        case CHAR:
+            return 0 == getChar(instance);
+        case INT:
+            return 0 == getInt(instance);
+        case LONG:
+            return 0L == getLong(instance);
+        case FLOAT:
+            return 0 == Float.floatToRawIntBits(getFloat(instance));
+        case DOUBLE:
+            return 0L == Double.doubleToRawLongBits(getDouble(instance));
+        default:
+            return null == get(instance);
+        }
+    }
+
+    /**
+     * Copies the value of the underlying field from a given origin to a given target unless it is the default value
+     * of its type (see {@link #isDefault(Object)}), primitive values without boxing.
+     */
+    final void copyUnlessDefault(final Object origin, final Object target) {
+        switch (kind) {
+        case BOOLEAN:
+            if (getBoolean(origin)) {
+                setBoolean(target, true);
+            }
+            break;
+        case BYTE:
+            final byte byteValue = getByte(origin);
+            if (0 != byteValue) {
+                setByte(target, byteValue);
+            }
+            break;
+        case SHORT:
+            final short shortValue = getShort(origin);
+            if (0 != shortValue) {
+                setShort(target, shortValue);
+            }
+            break;
+        case CHAR:
+            final char charValue = getChar(origin);
+            if (0 != charValue) {
+                setChar(target, charValue);
+            }
+            break;
+        case INT:
+            final int intValue = getInt(origin);
+            if (0 != intValue) {
+                setInt(target, intValue);
+            }
+            break;
+        case LONG:
+            final long longValue = getLong(origin);
+            if (0L != longValue) {
+                setLong(target, longValue);
+            }
+            break;
+        case FLOAT:
+            final float floatValue = getFloat(origin);
+            if (0 != Float.floatToRawIntBits(floatValue)) {
+                setFloat(target, floatValue);
+            }
+            break;
+        case DOUBLE:
+            final double doubleValue = getDouble(origin);
+            if (0L != Double.doubleToRawLongBits(doubleValue)) {
+                setDouble(target, doubleValue);
+            }
+            break;
+        default:
+            final Object value = get(origin);
+            if (null != value) {
+                set(target, value);
+            }
+            break;
+        }
+    }
+
+    /**
+     * Sets the underlying field of a given target to the default value of its type ({@code null}, {@code 0} or
+     * {@code false}).
+     */
+    final void reset(final Object target) {
+        set(target, kind.defaultValue);
+    }
+
+
+    final boolean getBoolean(final Object origin) {
+        try {
+            return field.getBoolean(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getBoolean(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setBoolean(final Object target, final boolean value) {
+        try {
+            field.setBoolean(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setBoolean(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final byte getByte(final Object origin) {
+        try {
+            return field.getByte(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getByte(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setByte(final Object target, final byte value) {
+        try {
+            field.setByte(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setByte(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final short getShort(final Object origin) {
+        try {
+            return field.getShort(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getShort(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setShort(final Object target, final short value) {
+        try {
+            field.setShort(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setShort(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final char getChar(final Object origin) {
+        try {
+            return field.getChar(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getChar(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setChar(final Object target, final char value) {
+        try {
+            field.setChar(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setChar(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final int getInt(final Object origin) {
+        try {
+            return field.getInt(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getInt(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setInt(final Object target, final int value) {
+        try {
+            field.setInt(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setInt(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final long getLong(final Object origin) {
+        try {
+            return field.getLong(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getLong(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setLong(final Object target, final long value) {
+        try {
+            field.setLong(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setLong(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final float getFloat(final Object origin) {
+        try {
+            return field.getFloat(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getFloat(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setFloat(final Object target, final float value) {
+        try {
+            field.setFloat(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setFloat(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    final double getDouble(final Object origin) {
+        try {
+            return field.getDouble(origin);
+        } catch (IllegalAccessException e) {
+            prepareGet(e, origin);
+            try {
+                return field.getDouble(origin);
+            } catch (IllegalAccessException retried) {
+                throw failedGet(retried, origin);
+            }
+        }
+    }
+
+    final void setDouble(final Object target, final double value) {
+        try {
+            field.setDouble(target, value);
+        } catch (IllegalAccessException e) {
+            prepareSet(e, target, value);
+            try {
+                field.setDouble(target, value);
+            } catch (IllegalAccessException retried) {
+                throw failedSet(retried, target, value);
+            }
+        }
+    }
+
+    /**
+     * Distinguishes the primitive types and reference types of mapped fields.
+     */
+    enum Kind {
+
+        BOOLEAN(false),
+        BYTE((byte) 0),
+        SHORT((short) 0),
+        CHAR('\0'),
+        INT(0),
+        LONG(0L),
+        FLOAT(0.0f),
+        DOUBLE(0.0),
+        REFERENCE(null);
+
+        private final Object defaultValue;
+
+        Kind(final Object defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        static Kind of(final Class<?> type) {
+            if (!type.isPrimitive()) {
+                return REFERENCE;
+            } else if (boolean.class == type) {
+                return BOOLEAN;
+            } else if (byte.class == type) {
+                return BYTE;
+            } else if (short.class == type) {
+                return SHORT;
+            } else if (char.class == type) {
+                return CHAR;
+            } else if (int.class == type) {
+                return INT;
+            } else if (long.class == type) {
+                return LONG;
+            } else if (float.class == type) {
+                return FLOAT;
+            } else {
+                return DOUBLE;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package de.team33.libs.fields.v1;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * A stage of a {@link FieldMapper} to get consistent copies of instances that are concurrently mutated by other
+ * threads, without synchronizing with those threads.
+ * <p>
+ * A snapshot relies on a designated {@code volatile int} or {@code long} version field, used like a sequence lock:
+ * a writer increments the version before it starts mutating an instance (making it odd) and again when it is
+ * done (making it even). A reader reads the version (with acquire semantics), all mapped fields and then again the
+ * version. It retries if the version was odd or has changed in the meantime. Writers must themselves ensure that
+ * their mutations are not reordered before the first increment (e.g. by a store fence), as in any sequence lock.
+ * <p>
+ * Volatile fields are read with their volatile semantics, as by {@link Field#get(Object)}.
+ * <p>
+ * To get an instance use {@link FieldMapper#snapshot(String)} or {@link FieldMapper#snapshot(String, int)}.
+ * Instances are immutable and thread-safe.
+ *
+ * @param <T> the type of interest
+ */
+public final class Snapshot<T> {
+
+    /**
+     * The default maximum number of attempts to get a consistent snapshot.
+     */
+    public static final int DEFAULT_ATTEMPTS = 1000;
+
+    private static final String ILLEGAL_VERSION = "version field <%s> must be a volatile int or long field";
+    private static final String INCONSISTENT = "no consistent snapshot of <%s> within %d attempts";
+    private static final MethodHandle LOAD_FENCE = loadFence();
+    private static final int SPINS = 16;
+
+    private static volatile int fence;
+
+    private final Slot[] slots;
+    private final Slot version;
+    private final int attempts;
+
+    Snapshot(final FieldMapper<T> mapper, final Slot version, final int attempts) {
+        final Field field = version.field();
+        if (!Modifier.isVolatile(field.getModifiers())
+                || (Slot.Kind.INT != version.kind() && Slot.Kind.LONG != version.kind())) {
+            throw new IllegalArgumentException(format(ILLEGAL_VERSION, field));
+        }
+        if (1 > attempts) {
+            throw new IllegalArgumentException(format("attempts must be positive but was %d", attempts));
+        }
+        this.slots = mapper.slots();
+        this.version = version;
+        this.attempts = attempts;
+    }
+
+    private static MethodHandle loadFence() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                                .unreflect(unsafeClass.getMethod("loadFence"))
+                                .bindTo(theUnsafe.get(null))
+                                .asType(MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Prevents the reads before from being reordered with the (version) read after.
+     * Without {@code Unsafe.loadFence()} a volatile write/read pair is used as a (stronger) substitute.
+     */
+    private static void fence() {
+        if (null == LOAD_FENCE) {
+            fence = fence;
+        } else {
+            try {
+                LOAD_FENCE.invokeExact();
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Copies the fields of an original instance into a corresponding target instance, consistently regarding the
+     * version field.
+     *
+     * @return the target instance.
+     * @throws IllegalStateException if no consistent snapshot could be taken within the maximum number of attempts.
+     */
+    public final T copy(final T origin, final T target) {
+        for (int attempt = 1; attempt <= attempts; ++attempt) {
+            final long before = version.getLong(origin);
+            if (0 == (before & 1)) {
+                for (final Slot slot : slots) {
+                    slot.copy(origin, target);
+                }
+                fence();
+                if (before == version.getLong(origin)) {
+                    return target;
+                }
+            }
+            backOff(attempt);
+        }
+        throw new IllegalStateException(format(INCONSISTENT, origin, attempts));
+    }
+
+    /**
+     * Copies the fields of an original instance to a target map, which must be a mutable map, consistently
+     * regarding the version field.
+     *
+     * @return the target map.
+     * @throws IllegalStateException if no consistent snapshot could be taken within the maximum number of attempts.
+     */
+    public final <M extends Map<String, Object>> M map(final T origin, final M target) {
+        for (int attempt = 1; attempt <= attempts; ++attempt) {
+            final long before = version.getLong(origin);
+            if (0 == (before & 1)) {
+                for (final Slot slot : slots) {
+                    target.put(slot.name(), slot.get(origin));
+                }
+                fence();
+                if (before == version.getLong(origin)) {
+                    return target;
+                }
+            }
+            backOff(attempt);
+        }
+        throw new IllegalStateException(format(INCONSISTENT, origin, attempts));
+    }
+
+    private static void backOff(final int attempt) {
+        if (SPINS < attempt) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package de.team33.libs.fields.v1;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A tool that writes instances of a certain type as rows of a table (CSV or TSV) to a
+ * {@link WritableByteChannel}, one column per field mapped by a {@link FieldMapper}, in the mapper's fixed field
+ * order.
+ * <p>
+ * Values are formatted (UTF-8) directly into a reusable direct buffer, primitive values without boxing. Floating
+ * point values are formatted by way of their {@linkplain Double#toString(double) string representation}, though,
+ * which is a short-lived {@link String} per cell. The buffer is written to the channel whenever it runs full or the
+ * writer gets {@linkplain #flush() flushed}.
+ * <p>
+ * A {@code null} value results in an empty cell. Other references are written by their
+ * {@linkplain Object#toString() string representation}.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <T> the type of interest
+ */
+public final class TabularWriter<T> implements Flushable {
+
+    /**
+     * The default capacity of the underlying buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * The minimum capacity of the underlying buffer.
+     */
+    public static final int MIN_CAPACITY = ByteSink.MIN_CAPACITY;
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final Class<T> subjectClass;
+    private final Slot[] slots;
+    private final Format format;
+    private final ByteSink sink;
+
+    private TabularWriter(final FieldMapper<T> mapper, final Format format, final ByteSink sink) {
+        this.subjectClass = mapper.subjectClass();
+        this.slots = mapper.slots();
+        this.format = format;
+        this.sink = sink;
+    }
+
+    /**
+     * Returns a new {@link TabularWriter} that writes rows in a given {@link Format} to a given
+     * {@link WritableByteChannel}, using a buffer of {@link #DEFAULT_CAPACITY}.
+     */
+    public static <T> TabularWriter<T> of(final FieldMapper<T> mapper, final Format format,
+                                          final WritableByteChannel channel) {
+        return of(mapper, format, channel, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns a new {@link TabularWriter} that writes rows in a given {@link Format} to a given
+     * {@link WritableByteChannel}, using a buffer of a given capacity.
+     *
+     * @throws IllegalArgumentException if the capacity is less than {@link #MIN_CAPACITY}.
+     */
+    public static <T> TabularWriter<T> of(final FieldMapper<T> mapper, final Format format,
+                                          final WritableByteChannel channel, final int capacity) {
+        return new TabularWriter<>(mapper, format, ByteSink.of(channel, capacity));
+    }
+
+    /**
+     * Writes a header row consisting of the logical names of the mapped fields.
+     *
+     * @return this writer.
+     */
+    public final TabularWriter<T> writeHeader() throws IOException {
+        for (int index = 0; index < slots.length; ++index) {
+            delimit(index);
+            format.putCell(sink, slots[index].name());
+        }
+        return endRow();
+    }
+
+    /**
+     * Writes a single instance as a row.
+     *
+     * @return this writer.
+     */
+    public final TabularWriter<T> write(final T instance) throws IOException {
+        for (int index = 0; index < slots.length; ++index) {
+            delimit(index);
+            putValue(slots[index], instance);
+        }
+        return endRow();
+    }
+
+    /**
+     * Writes some instances as rows.
+     *
+     * @return this writer.
+     */
+    public final TabularWriter<T> writeAll(final Iterable<? extends T> instances) throws IOException {
+        final Object event = FlightEvents.BULK.begin();
+        long count = 0;
+        for (final T instance : instances) {
+            write(instance);
+            ++count;
+        }
+        FlightEvents.BULK.commit(event, subjectClass, slots.length, "TabularWriter.writeAll", count);
+        return this;
+    }
+
+    /**
+     * Writes all rows buffered so far to the underlying channel.
+     */
+    @Override
+    public final void flush() throws IOException {
+        sink.flush();
+    }
+
+    private void delimit(final int index) throws IOException {
+        if (0 < index) {
+            sink.put(format.delimiter);
+        }
+    }
+
+    private TabularWriter<T> endRow() throws IOException {
+        sink.put(format.lineEnd);
+        return this;
+    }
+
+    private void putValue(final Slot slot, final Object origin) throws IOException {
+        switch (slot.kind()) {
+        case BOOLEAN:
+            sink.put(slot.getBoolean(origin) ? TRUE : FALSE);
+            break;
+        case BYTE:
+            sink.putDecimal(slot.getByte(origin));
+            break;
+        case SHORT:
+            sink.putDecimal(slot.getShort(origin));
+            break;
+        case CHAR:
+            format.putCell(sink, slot.getChar(origin));
+            break;
+        case INT:
+            sink.putDecimal(slot.getInt(origin));
+            break;
+        case LONG:
+            sink.putDecimal(slot.getLong(origin));
+            break;
+        case FLOAT:
+            sink.putText(Float.toString(slot.getFloat(origin)));
+            break;
+        case DOUBLE:
+            sink.putText(Double.toString(slot.getDouble(origin)));
+            break;
+        default:
+            putReference(slot.get(origin));
+            break;
+        }
+    }
+
+    private void putReference(final Object value) throws IOException {
+        if (null == value) {
+            return;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            sink.putDecimal(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            sink.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof CharSequence) {
+            format.putCell(sink, (CharSequence) value);
+        } else {
+            format.putCell(sink, value.toString());
+        }
+    }
+
+    /**
+     * Defines the supported table formats.
+     */
+    public enum Format {
+
+        /**
+         * Comma separated values as specified by RFC 4180: Cells containing a comma, a double quote or a line break
+         * are enclosed in double quotes, contained double quotes are doubled. Rows end with CR LF.
+         */
+        CSV(',', "\r\n") {
+            @Override
+            void putCell(final ByteSink sink, final CharSequence text) throws IOException {
+                if (isPlain(text)) {
+                    sink.putText(text);
+                } else {
+                    sink.put((byte) '"');
+                    for (int index = 0, length = text.length(); index < length; ) {
+                        if ('"' == text.charAt(index)) {
+                            sink.put((byte) '"');
+                        }
+                        index += putChar(sink, text, index);
+                    }
+                    sink.put((byte) '"');
+                }
+            }
+
+            @Override
+            void putCell(final ByteSink sink, final char value) throws IOException {
+                if (isPlain(value)) {
+                    sink.putCodePoint(value);
+                } else {
+                    putCell(sink, String.valueOf(value));
+                }
+            }
+
+            private boolean isPlain(final CharSequence text) {
+                for (int index = 0, length = text.length(); index < length; ++index) {
+                    if (!isPlain(text.charAt(index))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private boolean isPlain(final char c) {
+                return ',' != c && '"' != c && '\r' != c && '\n' != c;
+            }
+        },
+
+        /**
+         * Tab separated values: Tabs, line breaks and backslashes within cells are escaped as {@code \t},
+         * {@code \n}, {@code \r} and {@code \\}. Rows end with LF.
+         */
+        TSV('\t', "\n") {
+            @Override
+            void putCell(final ByteSink sink, final CharSequence text) throws IOException {
+                for (int index = 0, length = text.length(); index < length; ) {
+                    final byte escape = escape(text.charAt(index));
+                    if (0 == escape) {
+                        index += putChar(sink, text, index);
+                    } else {
+                        sink.put((byte) '\\').put(escape);
+                        ++index;
+                    }
+                }
+            }
+
+            @Override
+            void putCell(final ByteSink sink, final char value) throws IOException {
+                final byte escape = escape(value);
+                if (0 == escape) {
+                    sink.putCodePoint(value);
+                } else {
+                    sink.put((byte) '\\').put(escape);
+                }
+            }
+
+            private byte escape(final char c) {
+                switch (c) {
+                case '\t':
+                    return 't';
+                case '\n':
+                    return 'n';
+                case '\r':
+                    return 'r';
+                case '\\':
+                    return '\\';
+                default:
+                    return 0;
+                }
+            }
+        };
+
+        private final byte delimiter;
+        private final byte[] lineEnd;
+
+        Format(final char delimiter, final String lineEnd) {
+            this.delimiter = (byte) delimiter;
+            this.lineEnd = lineEnd.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Writes the character at a given index, or the surrogate pair starting at that index, and returns the
+         * number of chars written.
+         */
+        private static int putChar(final ByteSink sink, final CharSequence text, final int index)
+                throws IOException {
+            final char c = text.charAt(index);
+            if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(index + 1))) {
+                sink.putCodePoint(Character.toCodePoint(c, text.charAt(index + 1)));
+                return 2;
+            }
+            sink.putCodePoint(c);
+            return 1;
+        }
+
+        abstract void putCell(ByteSink sink, CharSequence text) throws IOException;
+
+        abstract void putCell(ByteSink sink, char value) throws IOException;
+    }
+}
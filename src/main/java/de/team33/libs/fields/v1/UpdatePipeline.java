@@ -0,0 +1,533 @@
+package de.team33.libs.fields.v1;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * A pipeline that receives partial updates ({@link Map} patches of logical field names to values) for targets
+ * identified by keys, coalesces the updates per target and field and applies them in batches on an
+ * {@link Executor}.
+ * <p>
+ * Updates are coalesced into a pending entry per key until a batch picks it up: a later value for the same field
+ * replaces an earlier one. The number of pending keys is bounded: {@link #submit(Object, Map)} blocks and
+ * {@link #offer(Object, Map)} fails while the bound is reached, unless the key is already pending.
+ * <p>
+ * Batches are applied one at a time, so updates to the same key are applied in the order of their submission and
+ * no target is patched concurrently by the pipeline. Each pending entry is applied to the target resolved by a
+ * given lookup function, via the precompiled field plan of a {@link FieldMapper} (without any hashing). After each
+ * batch, its {@link Metrics} are passed to a given consumer. Runtime exceptions thrown by a consumer are ignored,
+ * so they can not affect the pipeline.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @param <K> the type of the keys identifying the targets
+ * @param <T> the type of the targets
+ */
+public final class UpdatePipeline<K, T> implements Closeable {
+
+    /**
+     * The default maximum number of pending keys.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default maximum number of pending keys applied within a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final String CLOSED = "pipeline is closed";
+
+    private final FieldMapper<T> mapper;
+    private final Slot[] slots;
+    private final Function<? super K, ? extends T> lookup;
+    private final Executor executor;
+    private final int capacity;
+    private final int batchSize;
+    private final Consumer<? super Metrics> metrics;
+    private final BiConsumer<? super K, ? super RuntimeException> failures;
+    private final Map<K, Pending> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private boolean draining = false;
+    private boolean closed = false;
+
+    private UpdatePipeline(final FieldMapper<T> mapper, final Function<? super K, ? extends T> lookup,
+                           final Executor executor, final int capacity, final int batchSize,
+                           final Consumer<? super Metrics> metrics,
+                           final BiConsumer<? super K, ? super RuntimeException> failures) {
+        if (1 > capacity || 1 > batchSize) {
+            throw new IllegalArgumentException(
+                    format("capacity (%d) and batch size (%d) must be positive", capacity, batchSize));
+        }
+        this.mapper = mapper;
+        this.slots = mapper.slots();
+        this.lookup = lookup;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.failures = failures;
+    }
+
+    /**
+     * Returns a new {@link UpdatePipeline} with {@linkplain #DEFAULT_CAPACITY default capacity},
+     * {@linkplain #DEFAULT_BATCH_SIZE default batch size} and without metrics consumer.
+     *
+     * @param mapper   the {@link FieldMapper} to apply the updates.
+     * @param lookup   a function to resolve the target for a given key. A result of {@code null} means that the
+     *                 target is missing, its pending updates are discarded.
+     * @param executor the {@link Executor} to apply the batches.
+     */
+    public static <K, T> UpdatePipeline<K, T> of(final FieldMapper<T> mapper,
+                                                 final Function<? super K, ? extends T> lookup,
+                                                 final Executor executor) {
+        return of(mapper, lookup, executor, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, any -> {
+        });
+    }
+
+    /**
+     * Returns a new {@link UpdatePipeline}.
+     *
+     * @param mapper    the {@link FieldMapper} to apply the updates.
+     * @param lookup    a function to resolve the target for a given key. A result of {@code null} means that the
+     *                  target is missing, its pending updates are discarded.
+     * @param executor  the {@link Executor} to apply the batches.
+     * @param capacity  the maximum number of pending keys.
+     * @param batchSize the maximum number of pending keys applied within a single batch.
+     * @param metrics   a consumer of the {@link Metrics} of each batch, called on the executor.
+     * @throws IllegalArgumentException if capacity or batch size is not positive.
+     */
+    public static <K, T> UpdatePipeline<K, T> of(final FieldMapper<T> mapper,
+                                                 final Function<? super K, ? extends T> lookup,
+                                                 final Executor executor, final int capacity, final int batchSize,
+                                                 final Consumer<? super Metrics> metrics) {
+        return of(mapper, lookup, executor, capacity, batchSize, metrics, (key, cause) -> {
+        });
+    }
+
+    /**
+     * Returns a new {@link UpdatePipeline}.
+     *
+     * @param mapper    the {@link FieldMapper} to apply the updates.
+     * @param lookup    a function to resolve the target for a given key. A result of {@code null} means that the
+     *                  target is missing, its pending updates are discarded.
+     * @param executor  the {@link Executor} to apply the batches.
+     * @param capacity  the maximum number of pending keys.
+     * @param batchSize the maximum number of pending keys applied within a single batch.
+     * @param metrics   a consumer of the {@link Metrics} of each batch, called on the executor.
+     * @param failures  a consumer of the key and the cause of each target that could not be patched due to an
+     *                  exception, called on the executor.
+     * @throws IllegalArgumentException if capacity or batch size is not positive.
+     */
+    public static <K, T> UpdatePipeline<K, T> of(final FieldMapper<T> mapper,
+                                                 final Function<? super K, ? extends T> lookup,
+                                                 final Executor executor, final int capacity, final int batchSize,
+                                                 final Consumer<? super Metrics> metrics,
+                                                 final BiConsumer<? super K, ? super RuntimeException> failures) {
+        return new UpdatePipeline<>(mapper, lookup, executor, capacity, batchSize, metrics, failures);
+    }
+
+    /**
+     * Submits a patch for the target identified by a given key, waiting if necessary until the number of pending
+     * keys falls below the capacity.
+     *
+     * @throws IllegalArgumentException   if the patch contains a key that does not match any mapped field.
+     * @throws IllegalStateException      if this pipeline is closed.
+     * @throws RejectedExecutionException if the executor rejects to apply the patch, which is discarded then.
+     * @throws InterruptedException       if interrupted while waiting.
+     */
+    public final void submit(final K key, final Map<String, ?> patch) throws InterruptedException {
+        final Update update = new Update(mapper, patch);
+        lock.lockInterruptibly();
+        try {
+            while (isFull(key)) {
+                notFull.await();
+            }
+            add(key, update);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Submits a patch for the target identified by a given key, if possible without waiting.
+     *
+     * @return {@code true} if the patch was accepted, {@code false} if the number of pending keys is at capacity.
+     * @throws IllegalArgumentException   if the patch contains a key that does not match any mapped field.
+     * @throws IllegalStateException      if this pipeline is closed.
+     * @throws RejectedExecutionException if the executor rejects to apply the patch, which is discarded then.
+     */
+    public final boolean offer(final K key, final Map<String, ?> patch) {
+        final Update update = new Update(mapper, patch);
+        lock.lock();
+        try {
+            if (isFull(key)) {
+                return false;
+            }
+            add(key, update);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFull(final K key) {
+        if (closed) {
+            throw new IllegalStateException(CLOSED);
+        }
+        return pending.size() >= capacity && !pending.containsKey(key);
+    }
+
+    private void add(final K key, final Update update) {
+        if (draining) {
+            pending.computeIfAbsent(key, any -> new Pending(slots.length)).add(update);
+            return;
+        }
+        // Keep the previous state to restore it if the executor rejects ...
+        final Pending previous = pending.get(key);
+        final Pending entry = (null == previous) ? new Pending(slots.length) : previous.copy();
+        entry.add(update);
+        pending.put(key, entry);
+        draining = true;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining = false;
+            if (null == previous) {
+                pending.remove(key);
+            } else {
+                pending.put(key, previous);
+            }
+            throw e;
+        }
+    }
+
+    private void drain() {
+        boolean proceed = true;
+        while (proceed) {
+            boolean responsible = true;
+            boolean done = false;
+            try {
+                final Metrics result = apply(take());
+                proceed = complete(result);
+                responsible = proceed;
+                report(result);
+                done = true;
+            } finally {
+                if (!done && responsible) {
+                    abort();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands over the remaining backlog to a new task after the current task has failed unexpectedly (by an
+     * {@link Error}) or stops draining if that is not possible.
+     */
+    private void abort() {
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                try {
+                    executor.execute(this::drain);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // stop draining, the backlog is picked up by the next submission ...
+                }
+            }
+            draining = false;
+            idle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void report(final Metrics result) {
+        try {
+            metrics.accept(result);
+        } catch (RuntimeException e) {
+            // a failing consumer must not affect the pipeline
+        }
+    }
+
+    private List<Map.Entry<K, Pending>> take() {
+        final List<Map.Entry<K, Pending>> batch = new ArrayList<>(batchSize);
+        lock.lock();
+        try {
+            final Iterator<Map.Entry<K, Pending>> iterator = pending.entrySet().iterator();
+            while (batch.size() < batchSize && iterator.hasNext()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    /**
+     * Completes a batch and schedules the next one, if any.
+     *
+     * @return {@code true} if the executor rejected to schedule the next batch, so the current task must proceed.
+     */
+    private boolean complete(final Metrics result) {
+        lock.lock();
+        try {
+            result.backlog = pending.size();
+            if (pending.isEmpty()) {
+                draining = false;
+                idle.signalAll();
+                return false;
+            }
+            try {
+                executor.execute(this::drain);
+                return false;
+            } catch (RejectedExecutionException e) {
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Metrics apply(final List<Map.Entry<K, Pending>> batch) {
+        final Object event = FlightEvents.BULK.begin();
+        final long start = System.nanoTime();
+        final Metrics result = new Metrics();
+        for (final Map.Entry<K, Pending> entry : batch) {
+            final Pending update = entry.getValue();
+            result.updates += update.updates;
+            result.fields += update.present.cardinality();
+            try {
+                final T target = lookup.apply(entry.getKey());
+                if (null == target) {
+                    result.missing += 1;
+                } else {
+                    update.apply(slots, target);
+                    result.targets += 1;
+                }
+            } catch (RuntimeException e) {
+                result.failures += 1;
+                report(entry.getKey(), e);
+            }
+        }
+        result.nanos = System.nanoTime() - start;
+        FlightEvents.BULK.commit(event, mapper.subjectClass(), slots.length, "UpdatePipeline.apply", batch.size());
+        return result;
+    }
+
+    private void report(final K key, final RuntimeException cause) {
+        try {
+            failures.accept(key, cause);
+        } catch (RuntimeException e) {
+            // a failing consumer must not affect the pipeline
+        }
+    }
+
+    /**
+     * Waits until all updates submitted so far have been applied.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public final void flush() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (draining) {
+                idle.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to a given time until all updates submitted so far have been applied.
+     *
+     * @return {@code true} if all updates have been applied, {@code false} if the time elapsed before.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public final boolean flush(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (draining) {
+                if (0 >= nanos) {
+                    return false;
+                }
+                nanos = idle.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting updates and waits until all updates submitted so far have been applied.
+     * Threads waiting to submit will fail with an {@link IllegalStateException}.
+     */
+    @Override
+    public final void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A single patch, resolved to slot indices and values by a single pass over its entries.
+     */
+    private static final class Update {
+
+        private final int[] indices;
+        private final Object[] values;
+
+        private Update(final FieldMapper<?> mapper, final Map<String, ?> patch) {
+            final Object[] entries = patch.entrySet().toArray();
+            this.indices = new int[entries.length];
+            this.values = new Object[entries.length];
+            for (int position = 0; position < entries.length; ++position) {
+                final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) entries[position];
+                indices[position] = mapper.slot((String) entry.getKey()).index();
+                values[position] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * The coalesced updates pending for a single key.
+     */
+    private static final class Pending {
+
+        private final Object[] values;
+        private final BitSet present;
+        private int updates;
+
+        private Pending(final int size) {
+            this.values = new Object[size];
+            this.present = new BitSet(size);
+        }
+
+        private Pending(final Pending origin) {
+            this.values = origin.values.clone();
+            this.present = (BitSet) origin.present.clone();
+            this.updates = origin.updates;
+        }
+
+        private Pending copy() {
+            return new Pending(this);
+        }
+
+        private void add(final Update update) {
+            for (int position = 0; position < update.indices.length; ++position) {
+                values[update.indices[position]] = update.values[position];
+                present.set(update.indices[position]);
+            }
+            updates += 1;
+        }
+
+        private void apply(final Slot[] slots, final Object target) {
+            for (int index = present.nextSetBit(0); 0 <= index; index = present.nextSetBit(index + 1)) {
+                slots[index].set(target, values[index]);
+            }
+        }
+    }
+
+    /**
+     * The metrics of a single batch.
+     */
+    public static final class Metrics {
+
+        private int targets;
+        private int missing;
+        private int failures;
+        private long updates;
+        private long fields;
+        private long nanos;
+        private int backlog;
+
+        private Metrics() {
+        }
+
+        /**
+         * Returns the number of targets patched by the batch.
+         */
+        public final int targets() {
+            return targets;
+        }
+
+        /**
+         * Returns the number of keys whose target was missing.
+         */
+        public final int missing() {
+            return missing;
+        }
+
+        /**
+         * Returns the number of keys whose target could not be patched due to an exception.
+         */
+        public final int failures() {
+            return failures;
+        }
+
+        /**
+         * Returns the number of submitted patches coalesced into the batch.
+         */
+        public final long updates() {
+            return updates;
+        }
+
+        /**
+         * Returns the number of distinct fields set by the batch (after coalescing).
+         */
+        public final long fields() {
+            return fields;
+        }
+
+        /**
+         * Returns the time needed to apply the batch in nanoseconds.
+         */
+        public final long nanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the number of keys still pending when the batch was completed.
+         */
+        public final int backlog() {
+            return backlog;
+        }
+
+        @Override
+        public final String toString() {
+            return format("Metrics(targets=%d, missing=%d, failures=%d, updates=%d, fields=%d, nanos=%d, " +
+                                  "backlog=%d)", targets, missing, failures, updates, fields, nanos, backlog);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package de.team33.test.fields.common;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the number of bytes the current thread allocates while running warmed-up operations, based on
+ * {@link com.sun.management.ThreadMXBean}.
+ * <p>
+ * Budgets are only meaningful for compiled code with escape analysis, so measuring is considered
+ * {@linkplain #isSupported() unsupported} without a JIT compiler or with escape analysis switched off. A budget
+ * that is exceeded is measured again a few times before it fails, to tolerate a JIT compiler that has not settled
+ * yet.
+ */
+public final class Allocations {
+
+    private static final int WARMUPS = 20_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int ATTEMPTS = 5;
+    private static final com.sun.management.ThreadMXBean THREADS = isOptimizing() ? threads() : null;
+
+    private Allocations() {
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            final com.sun.management.ThreadMXBean result =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (result.isThreadAllocatedMemorySupported()) {
+                result.setThreadAllocatedMemoryEnabled(true);
+                return result;
+            }
+        } catch (final ClassCastException | UnsupportedOperationException ignored) {
+            // not supported on this platform
+        }
+        return null;
+    }
+
+    private static boolean isOptimizing() {
+        if (null == ManagementFactory.getCompilationMXBean()) {
+            return false;
+        }
+        try {
+            return Boolean.parseBoolean(ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                                                         .getVMOption("DoEscapeAnalysis")
+                                                         .getValue());
+        } catch (final RuntimeException ignored) {
+            // not a HotSpot VM: assume it optimizes
+            return true;
+        }
+    }
+
+    /**
+     * Determines if measuring allocations is supported on the current platform.
+     */
+    public static boolean isSupported() {
+        return null != THREADS;
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Determines the average number of bytes allocated by the current thread per execution of a given operation,
+     * after warming it up.
+     */
+    public static double perOperation(final Runnable operation) {
+        for (int i = 0; i < WARMUPS; ++i) {
+            operation.run();
+        }
+        final long overhead = measure(() -> {
+        }, 1);
+        final long total = measure(operation, ITERATIONS) - overhead;
+        return Math.max(0, total) / (double) ITERATIONS;
+    }
+
+    private static long measure(final Runnable operation, final int iterations) {
+        final long start = allocated();
+        for (int i = 0; i < iterations; ++i) {
+            operation.run();
+        }
+        return allocated() - start;
+    }
+
+    /**
+     * Fails with an {@link AssertionError} if a given operation repeatedly allocates more than a given number of
+     * bytes per execution on average.
+     */
+    public static void assertBudget(final String description, final long budget, final Runnable operation) {
+        double result = perOperation(operation);
+        for (int attempt = 1; attempt < ATTEMPTS && result > budget; ++attempt) {
+            result = perOperation(operation);
+        }
+        if (result > budget) {
+            throw new AssertionError(String.format("%s: expected to allocate at most %d bytes per operation " +
+                                                   "but allocated %.2f bytes", description, budget, result));
+        }
+    }
+}
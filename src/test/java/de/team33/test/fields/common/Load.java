@@ -0,0 +1,201 @@
+package de.team33.test.fields.common;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * A simple multi-threaded load driver: runs an operation from a number of threads for a fixed time, records the
+ * latency of each execution in a per-thread {@link Histogram} and reports throughput, latency percentiles and
+ * scaling efficiency (relative to a single thread) per thread count.
+ * <p>
+ * Configured by the system properties {@code load.threads} (comma separated thread counts, default
+ * {@code 1,2,4,8,16,32,64}), {@code load.seconds} (measuring time per thread count, default 2) and
+ * {@code load.warmup} (warm-up time per thread count in seconds, default 1).
+ */
+public final class Load {
+
+    private static final int[] THREADS = Stream.of(System.getProperty("load.threads", "1,2,4,8,16,32,64")
+                                                         .split(","))
+                                               .mapToInt(value -> Integer.parseInt(value.trim()))
+                                               .toArray();
+    private static final long NANOS = seconds("load.seconds", 2);
+    private static final long WARMUP = seconds("load.warmup", 1);
+    private static final String HEADER = "%-28s %7s %14s %10s %10s %10s %10s%n";
+    private static final String ROW = "%-28s %7d %14.0f %10.2f %10.2f %10.2f %9.0f%%%n";
+
+    private Load() {
+    }
+
+    private static long seconds(final String key, final long defaultValue) {
+        return TimeUnit.MILLISECONDS.toNanos((long) (1000 * Double.parseDouble(
+                System.getProperty(key, String.valueOf(defaultValue)))));
+    }
+
+    /**
+     * Runs a given operation for all configured thread counts and prints a report to a given stream.
+     * The operation gets a running number that is unique per thread, e.g. to pick a sample.
+     *
+     * @return the results per thread count.
+     */
+    public static List<Result> run(final String name, final LongConsumer operation, final PrintStream out) {
+        out.printf(HEADER, "operation", "threads", "ops/s", "p50 [us]", "p99 [us]", "p999 [us]", "scaling");
+        final List<Result> results = new ArrayList<>(THREADS.length);
+        double single = 0;
+        for (final int threads : THREADS) {
+            run(threads, WARMUP, operation);
+            final Result result = run(threads, NANOS, operation);
+            single = (0 == single) ? result.throughput / threads : single;
+            out.printf(ROW, name, threads, result.throughput,
+                       result.latency.percentile(0.5) / 1000.0,
+                       result.latency.percentile(0.99) / 1000.0,
+                       result.latency.percentile(0.999) / 1000.0,
+                       100 * result.throughput / (single * threads));
+            results.add(result);
+        }
+        out.flush();
+        return results;
+    }
+
+    private static Result run(final int threads, final long nanos, final LongConsumer operation) {
+        final Histogram[] histograms = new Histogram[threads];
+        final long[] counts = new long[threads];
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> workers = new ArrayList<>(threads);
+        for (int index = 0; index < threads; ++index) {
+            final int worker = index;
+            histograms[worker] = new Histogram();
+            workers.add(new Thread(() -> {
+                final Histogram histogram = histograms[worker];
+                long count = 0;
+                try {
+                    ready.countDown();
+                    start.await();
+                    while (running.get()) {
+                        final long begin = System.nanoTime();
+                        operation.accept(count++);
+                        histogram.record(System.nanoTime() - begin);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+                counts[worker] = count;
+            }, "load-" + worker));
+        }
+        workers.forEach(Thread::start);
+        try {
+            ready.await();
+            final long begin = System.nanoTime();
+            start.countDown();
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            running.set(false);
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+            final long elapsed = System.nanoTime() - begin;
+            if (null != failure.get()) {
+                throw new IllegalStateException("load operation failed", failure.get());
+            }
+            final Histogram latency = new Histogram();
+            long total = 0;
+            for (int index = 0; index < threads; ++index) {
+                latency.add(histograms[index]);
+                total += counts[index];
+            }
+            return new Result(threads, total * 1e9 / elapsed, latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+
+    /**
+     * The result of running an operation from a certain number of threads.
+     */
+    public static final class Result {
+
+        public final int threads;
+        public final double throughput;
+        public final Histogram latency;
+
+        private Result(final int threads, final double throughput, final Histogram latency) {
+            this.threads = threads;
+            this.throughput = throughput;
+            this.latency = latency;
+        }
+    }
+
+    /**
+     * A histogram of latencies in nanoseconds with log-linear buckets (16 per power of two, i.e. a relative
+     * precision of about 6%) that records without allocating.
+     */
+    public static final class Histogram {
+
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+
+        private final long[] counts = new long[64 * SUB_COUNT];
+        private long total;
+
+        private static int bucket(final long value) {
+            if (value < SUB_COUNT) {
+                return (int) Math.max(0, value);
+            }
+            final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            final int sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_COUNT - 1);
+            return (magnitude - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        private static long lowerBound(final int bucket) {
+            if (bucket < SUB_COUNT) {
+                return bucket;
+            }
+            final int magnitude = bucket / SUB_COUNT + SUB_BITS - 1;
+            final long sub = bucket % SUB_COUNT;
+            return (SUB_COUNT + sub) << (magnitude - SUB_BITS);
+        }
+
+        void record(final long nanos) {
+            counts[bucket(nanos)] += 1;
+            total += 1;
+        }
+
+        void add(final Histogram other) {
+            for (int index = 0; index < counts.length; ++index) {
+                counts[index] += other.counts[index];
+            }
+            total += other.total;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         */
+        public long count() {
+            return total;
+        }
+
+        /**
+         * Returns (the lower bound of the bucket of) the value at a given quantile, e.g. {@code 0.99}.
+         */
+        public long percentile(final double quantile) {
+            final long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int index = 0; index < counts.length; ++index) {
+                seen += counts[index];
+                if (seen >= rank && 0 < seen) {
+                    return lowerBound(index);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.Checkpoint;
+import de.team33.libs.fields.v1.FieldMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CheckpointTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    @Test
+    public void restore() {
+        final Subject subject = new Subject(true, 'x', 278, -1L, -0.0f, Double.NaN, null, "a string");
+        final Checkpoint<Subject> checkpoint = MAPPER.checkpoint(subject);
+
+        final Subject expected = MAPPER.copy(subject);
+        subject.mutate();
+        assertFalse(MAPPER.diff(expected, subject).names().isEmpty());
+
+        assertSame(subject, checkpoint.restore(subject));
+        assertTrue(MAPPER.diff(expected, subject).names().isEmpty());
+        assertEquals(Float.floatToRawIntBits(-0.0f), Float.floatToRawIntBits(subject.aFloat));
+        assertTrue(Double.isNaN(subject.aDouble));
+        assertNull(subject.anObject);
+    }
+
+    @Test
+    public void capture() {
+        final Subject subject = new Subject(false, 'a', 0, 0L, 0.0f, 0.0, 5, null);
+        final Checkpoint<Subject> checkpoint = MAPPER.checkpoint(subject);
+        subject.mutate();
+        final Subject expected = MAPPER.copy(subject);
+
+        assertSame(checkpoint, checkpoint.capture(subject));
+        final Subject result = checkpoint.restore(MAPPER.newInstance());
+        assertTrue(MAPPER.diff(expected, result).names().isEmpty());
+    }
+
+    private static class Subject {
+
+        private boolean aBoolean;
+        private char aChar;
+        private int anInt;
+        private long aLong;
+        private float aFloat;
+        private double aDouble;
+        private Object anObject;
+        private String aString;
+
+        private Subject(final boolean aBoolean, final char aChar, final int anInt, final long aLong,
+                        final float aFloat, final double aDouble, final Object anObject, final String aString) {
+            this.aBoolean = aBoolean;
+            this.aChar = aChar;
+            this.anInt = anInt;
+            this.aLong = aLong;
+            this.aFloat = aFloat;
+            this.aDouble = aDouble;
+            this.anObject = anObject;
+            this.aString = aString;
+        }
+
+        private void mutate() {
+            aBoolean = !aBoolean;
+            aChar += 1;
+            anInt -= 1;
+            aLong = Long.MIN_VALUE;
+            aFloat = 1.5f;
+            aDouble = -2.5;
+            anObject = new Object();
+            aString = "mutated";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.team33.test.fields.v1;
+
+import com.google.common.collect.ImmutableMap;
+import de.team33.libs.fields.v1.Conversion;
+import de.team33.libs.fields.v1.Converters;
+import de.team33.libs.fields.v1.FieldMapper;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConversionTest {
+
+    private final FieldMapper<Subject> mapper = FieldMapper.FACTORY.mapperFor(Subject.class);
+    private final Conversion<Subject> subject = mapper.converting(Converters.STANDARD);
+
+    @Test
+    public void standard() {
+        final Map<String, Object> origin = new HashMap<>();
+        origin.put("anInt", 278L);
+        origin.put("aLong", 42);
+        origin.put("aDecimal", "3.14");
+        origin.put("aString", 7);
+        origin.put("anEnum", "SECONDS");
+        final Subject result = subject.map(origin);
+        assertEquals(278, result.anInt);
+        assertEquals(42L, result.aLong);
+        assertEquals(new BigDecimal("3.14"), result.aDecimal);
+        assertEquals("7", result.aString);
+        assertEquals(TimeUnit.SECONDS, result.anEnum);
+    }
+
+    @Test
+    public void changingSourceTypes() {
+        assertEquals(1, subject.patch(ImmutableMap.of("anInt", 1L), new Subject(), FieldMapper.Unmapped.FAIL).anInt);
+        assertEquals(2, subject.patch(ImmutableMap.of("anInt", "2"), new Subject(), FieldMapper.Unmapped.FAIL).anInt);
+        assertEquals(3, subject.patch(ImmutableMap.of("anInt", 3.0), new Subject(), FieldMapper.Unmapped.FAIL).anInt);
+        assertEquals(4, subject.patch(ImmutableMap.of("anInt", 4L), new Subject(), FieldMapper.Unmapped.FAIL).anInt);
+    }
+
+    @Test
+    public void nullValues() {
+        final Subject target = new Subject();
+        target.aString = "a string";
+        final Map<String, Object> origin = new HashMap<>();
+        origin.put("aString", null);
+        final Subject result = subject.patch(origin, target, FieldMapper.Unmapped.FAIL);
+        assertNull(result.aString);
+    }
+
+    @Test
+    public void custom() {
+        final Conversion<Subject> custom = mapper.converting(
+                Converters.NONE.with(String.class, Long.class, text -> (long) text.length()));
+        assertEquals(5L, custom.patch(ImmutableMap.of("aLong", "abcde"), new Subject(),
+                                      FieldMapper.Unmapped.FAIL).aLong);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noConverter() {
+        mapper.converting(Converters.NONE).patch(ImmutableMap.of("anInt", 278L), new Subject(),
+                                                 FieldMapper.Unmapped.FAIL);
+    }
+
+    private static class Subject {
+
+        private int anInt;
+        private long aLong;
+        private BigDecimal aDecimal;
+        private String aString;
+        private TimeUnit anEnum;
+    }
+}
@@ -0,0 +1,98 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldAccessor;
+import de.team33.libs.fields.v1.FieldMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading an {@code int} field through a {@link FieldAccessor} (and through its
+ * {@linkplain FieldAccessor#getter() getter} held in a {@code static final} field) with handwritten access, plain
+ * reflection and a method handle of its own held in a {@code static final} field.
+ * <p>
+ * Not part of the regular build, run it via its {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessorBenchmark {
+
+    private static final FieldAccessor<Subject> ACCESSOR =
+            FieldMapper.FACTORY.mapperFor(Subject.class).accessor("anInt");
+    private static final Field FIELD = field();
+    private static final MethodHandle HANDLE = handle();
+    private static final MethodHandle ACCESSOR_GETTER = ACCESSOR.getter();
+
+    private final Subject subject = new Subject();
+
+    private static Field field() {
+        try {
+            final Field result = Subject.class.getDeclaredField("anInt");
+            result.setAccessible(true);
+            return result;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static MethodHandle handle() {
+        try {
+            return MethodHandles.lookup().unreflectGetter(FIELD);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FieldAccessorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Benchmark
+    public int handwritten() {
+        return subject.anInt;
+    }
+
+    @Benchmark
+    public int accessor() {
+        return ACCESSOR.getInt(subject);
+    }
+
+    @Benchmark
+    public int accessorGetter() throws Throwable {
+        return (int) ACCESSOR_GETTER.invokeExact(subject);
+    }
+
+    @Benchmark
+    public int reflection() throws IllegalAccessException {
+        return FIELD.getInt(subject);
+    }
+
+    @Benchmark
+    public int constantHandle() throws Throwable {
+        return (int) HANDLE.invokeExact(subject);
+    }
+
+    @SuppressWarnings("unused")
+    public static class Subject {
+
+        private int anInt = 278;
+    }
+}
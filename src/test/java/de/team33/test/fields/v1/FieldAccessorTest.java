@@ -0,0 +1,91 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldAccessor;
+import de.team33.libs.fields.v1.FieldMapper;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FieldAccessorTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+    private static final FieldAccessor<Subject> AN_INT = MAPPER.accessor("anInt");
+    private static final FieldAccessor<Subject> A_LONG = MAPPER.accessor("aLong");
+    private static final FieldAccessor<Subject> A_STRING = MAPPER.accessor("aString");
+    private static final FieldAccessor<Subject> A_FINAL_BYTE = MAPPER.accessor("aFinalByte");
+
+    @Test
+    public void cached() {
+        assertSame(AN_INT, MAPPER.accessor("anInt"));
+        assertSame(AN_INT, MAPPER.accessor(MAPPER.indexOf("anInt")));
+        assertEquals("anInt", AN_INT.name());
+    }
+
+    @Test
+    public void primitives() {
+        final Subject subject = new Subject();
+        AN_INT.setInt(subject, 278);
+        A_LONG.setInt(subject, -1);
+        assertEquals(278, AN_INT.getInt(subject));
+        assertEquals(278L, AN_INT.getLong(subject));
+        assertEquals(278.0, AN_INT.getDouble(subject), 0.0);
+        assertEquals(-1L, A_LONG.getLong(subject));
+        assertEquals(278, subject.anInt);
+        assertEquals(-1L, subject.aLong);
+    }
+
+    @Test
+    public void finalField() {
+        final Subject subject = new Subject();
+        A_FINAL_BYTE.setByte(subject, (byte) 5);
+        assertEquals(5, A_FINAL_BYTE.getByte(subject));
+        assertEquals(5, A_FINAL_BYTE.getInt(subject));
+    }
+
+    @Test
+    public void objects() {
+        final Subject subject = new Subject();
+        A_STRING.setObject(subject, "a string");
+        AN_INT.setObject(subject, 42);
+        assertEquals("a string", A_STRING.getObject(subject));
+        assertEquals(42, AN_INT.getObject(subject));
+    }
+
+    @Test
+    public void handles() throws Throwable {
+        final Subject subject = new Subject();
+        final MethodHandle getter = AN_INT.getter();
+        final MethodHandle setter = AN_INT.setter();
+        setter.invokeExact(subject, 278);
+        assertEquals(278, (int) getter.invokeExact(subject));
+        assertEquals(278, subject.anInt);
+        A_FINAL_BYTE.setter().invokeExact(subject, (byte) 7);
+        assertEquals(7, (byte) A_FINAL_BYTE.getter().invokeExact(subject));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void narrowing() {
+        A_LONG.getInt(new Subject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reference() {
+        A_STRING.getInt(new Subject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown() {
+        MAPPER.accessor("unknown");
+    }
+
+    private static class Subject {
+
+        private final byte aFinalByte = 0;
+        private int anInt;
+        private long aLong;
+        private String aString;
+    }
+}
@@ -0,0 +1,84 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldComparators;
+import de.team33.libs.fields.v1.FieldMapper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.team33.libs.fields.v1.FieldComparators.ascending;
+import static de.team33.libs.fields.v1.FieldComparators.descending;
+import static org.junit.Assert.assertEquals;
+
+public class FieldComparatorsTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    private static List<Subject> subjects() {
+        final Random random = new Random(278);
+        return IntStream.range(0, 1000)
+                        .mapToObj(index -> new Subject(random.nextInt(5),
+                                                       random.nextInt(3) - 1.5,
+                                                       (0 == random.nextInt(10)) ? null : "s" + random.nextInt(7),
+                                                       (char) ('a' + random.nextInt(26))))
+                        .collect(Collectors.toList());
+    }
+
+    private static void assertSameOrder(final Comparator<Subject> expected, final Comparator<Subject> actual) {
+        final List<Subject> subjects = subjects();
+        final List<Subject> left = new ArrayList<>(subjects);
+        final List<Subject> right = new ArrayList<>(subjects);
+        left.sort(expected);
+        right.sort(actual);
+        assertEquals(left, right);
+    }
+
+    @Test
+    public void single() {
+        assertSameOrder(Comparator.comparingInt((Subject subject) -> subject.anInt),
+                        FieldComparators.of(MAPPER, "anInt"));
+        assertSameOrder(Comparator.comparingInt((Subject subject) -> subject.aChar).reversed(),
+                        FieldComparators.of(MAPPER, descending("aChar")));
+    }
+
+    @Test
+    public void multiple() {
+        assertSameOrder(Comparator.comparingDouble((Subject subject) -> subject.aDouble)
+                                  .thenComparing(subject -> subject.aString,
+                                                 Comparator.nullsFirst(Comparator.<String>naturalOrder())
+                                                           .reversed())
+                                  .thenComparingInt(subject -> subject.anInt),
+                        FieldComparators.of(MAPPER, ascending("aDouble"), descending("aString"), ascending("anInt")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notComparable() {
+        FieldComparators.of(MAPPER, "anObject");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown() {
+        FieldComparators.of(MAPPER, "unknown");
+    }
+
+    private static class Subject {
+
+        private final int anInt;
+        private final double aDouble;
+        private final String aString;
+        private final char aChar;
+        private final Object anObject = null;
+
+        private Subject(final int anInt, final double aDouble, final String aString, final char aChar) {
+            this.anInt = anInt;
+            this.aDouble = aDouble;
+            this.aString = aString;
+            this.aChar = aChar;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldIndex;
+import de.team33.libs.fields.v1.Fields;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FieldIndexTest {
+
+    private static final FieldIndex INDEX = FieldIndex.of(Alpha.class, Beta.class, Gamma.class);
+
+    private static List<String> names(final List<Field> fields) {
+        return fields.stream()
+                     .map(Fields::canonicalName)
+                     .collect(Collectors.toList());
+    }
+
+    private static String name(final Class<?> type, final String field) {
+        return type.getCanonicalName() + "." + field;
+    }
+
+    @Test
+    public void ofType() {
+        assertEquals(Arrays.asList(name(Alpha.class, "id"), name(Beta.class, "id")),
+                     names(INDEX.ofType(long.class)));
+        assertEquals(Collections.emptyList(), INDEX.ofType(Double.class));
+    }
+
+    @Test
+    public void matching() {
+        assertEquals(Arrays.asList(name(Alpha.class, "cache"), name(Gamma.class, "cache")),
+                     names(INDEX.matching(Fields.Filter.TRANSIENT)));
+        assertEquals(Collections.singletonList(name(Beta.class, "COUNT")),
+                     names(INDEX.matching(field -> field.getName().startsWith("C"))));
+    }
+
+    @Test
+    public void classesDeclaring() {
+        assertEquals(new HashSet<>(Arrays.asList(Alpha.class, Gamma.class)),
+                     INDEX.classesDeclaring("cache"));
+        assertEquals(Collections.emptySet(), INDEX.classesDeclaring("unknown"));
+    }
+
+    @Test
+    public void query() {
+        final FieldIndex.Query query = INDEX.query()
+                                            .ofType(String.class)
+                                            .matching(Fields.Filter.SIGNIFICANT);
+        assertEquals(Arrays.asList(name(Alpha.class, "name"), name(Gamma.class, "name")), names(query.fields()));
+        assertEquals(1, query.named("name").matching(Fields.Filter.FINAL).size());
+    }
+
+    @Test
+    public void adHocFilter() {
+        final List<Field> tested = new ArrayList<>();
+        final Predicate<Field> filter = field -> tested.add(field) && field.getName().equals("id");
+        assertEquals(Collections.singletonList(name(Alpha.class, "id")),
+                     names(INDEX.query().ofType(long.class).matching(filter).named("id")
+                                .matching(field -> Alpha.class == field.getDeclaringClass()).fields()));
+        assertEquals(2, tested.size());
+        assertEquals(2, INDEX.query().matching(filter).size());
+        assertEquals(2 + INDEX.size(), tested.size());
+    }
+
+    @Test
+    public void deep() {
+        final FieldIndex index = FieldIndex.of(Fields.Streaming.DEEP, Arrays.asList(Gamma.class, Delta.class));
+        assertEquals(4, index.size());
+        assertEquals(Arrays.asList(name(Gamma.class, "name"), name(Gamma.class, "cache")),
+                     names(index.matching(Fields.Filter.INSTANCE)));
+    }
+
+    private static class Alpha {
+
+        private long id;
+        private String name;
+        private transient Object cache;
+    }
+
+    private static class Beta {
+
+        private static int COUNT;
+        private long id;
+    }
+
+    private static class Gamma {
+
+        private final String name = "gamma";
+        private transient String cache;
+    }
+
+    private static class Delta extends Gamma {
+
+        private static final int LIMIT = 5;
+        private static final int LOWER = 0;
+    }
+}
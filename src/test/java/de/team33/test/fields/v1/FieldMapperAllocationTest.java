@@ -0,0 +1,191 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldAccessor;
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.MergePolicy;
+import de.team33.libs.fields.v1.TabularWriter;
+import de.team33.test.fields.common.Allocations;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Asserts allocation budgets of warmed-up {@link FieldMapper} operations, measured by {@link Allocations}.
+ * <p>
+ * The results depend on the state of the JIT compiler (escape analysis in particular) and on the JVM in use, so
+ * the tests are skipped where {@link Allocations} can not measure reliably.
+ */
+public class FieldMapperAllocationTest {
+
+    private final FieldMapper<Primitives> primitives = FieldMapper.FACTORY.mapperFor(Primitives.class);
+    private final FieldMapper<References> references = FieldMapper.FACTORY.mapperFor(References.class);
+
+    @Before
+    public void before() {
+        assumeTrue("measuring allocations is not supported on this JVM", Allocations.isSupported());
+    }
+
+    @Test
+    public void copyPrimitives() {
+        final Primitives origin = new Primitives(278);
+        final Primitives target = new Primitives(0);
+        Allocations.assertBudget("copy(Primitives, Primitives)", 0, () -> primitives.copy(origin, target));
+    }
+
+    @Test
+    public void copyReferences() {
+        final References origin = new References("a", "b", "c");
+        final References target = new References(null, null, null);
+        Allocations.assertBudget("copy(References, References)", 0, () -> references.copy(origin, target));
+    }
+
+    @Test
+    public void mergePrimitives() {
+        final Primitives origin = new Primitives(278);
+        final Primitives target = new Primitives(0);
+        Allocations.assertBudget("merge(Primitives, Primitives, NON_DEFAULT)", 0,
+                                 () -> primitives.merge(origin, target, MergePolicy.NON_DEFAULT));
+        Allocations.assertBudget("merge(Primitives, Primitives, TARGET_DEFAULT)", 0,
+                                 () -> primitives.merge(origin, target, MergePolicy.TARGET_DEFAULT));
+    }
+
+    @Test
+    public void copyPrimitivesByAccessors() {
+        final Primitives origin = new Primitives(278);
+        final Primitives target = new Primitives(0);
+        final FieldAccessor<Primitives> anInt = primitives.accessor("anInt");
+        final FieldAccessor<Primitives> aLong = primitives.accessor("aLong");
+        final FieldAccessor<Primitives> aDouble = primitives.accessor("aDouble");
+        Allocations.assertBudget("FieldAccessor get/set", 0, () -> {
+            anInt.setInt(target, anInt.getInt(origin));
+            aLong.setLong(target, aLong.getLong(origin));
+            aDouble.setDouble(target, aDouble.getDouble(origin));
+        });
+    }
+
+    @Test
+    public void copyPrimitivesByIndex() {
+        final Primitives origin = new Primitives(278);
+        final Primitives target = new Primitives(0);
+        final int anInt = primitives.indexOf("anInt");
+        final int aLong = primitives.indexOf("aLong");
+        Allocations.assertBudget("FieldMapper get/set by index", 0, () -> {
+            primitives.setInt(target, anInt, primitives.getInt(origin, anInt));
+            primitives.setLong(target, aLong, primitives.getLong(origin, aLong));
+        });
+    }
+
+    @Test
+    public void resetPrimitives() {
+        final Primitives target = new Primitives(278);
+        Allocations.assertBudget("reset(Primitives)", 0, () -> primitives.reset(target));
+    }
+
+    @Test
+    public void mapToExistingKeys() {
+        final References origin = new References("a", "b", "c");
+        final Map<String, Object> target = references.map(origin, new HashMap<>());
+        Allocations.assertBudget("map(References, Map)", 0, () -> references.map(origin, target));
+    }
+
+    @Test
+    public void mapFromMap() {
+        final Map<String, Object> origin = references.map(new References("a", "b", "c"), new HashMap<>());
+        final References target = new References(null, null, null);
+        Allocations.assertBudget("map(Map, References)", 0, () -> references.map(origin, target));
+    }
+
+    @Test
+    public void patch() {
+        final Map<String, Object> origin = Collections.singletonMap("second", "patched");
+        final References target = new References(null, null, null);
+        Allocations.assertBudget("patch(Map, References)", 32, () -> references.patch(origin, target));
+    }
+
+    @Test
+    public void mapPrimitives() {
+        final Primitives origin = new Primitives(278_278);
+        final Map<String, Object> target = primitives.map(origin, new HashMap<>());
+        // boxing the values of 8 fields, 24 bytes at most each
+        Allocations.assertBudget("map(Primitives, Map)", 8 * 24, () -> primitives.map(origin, target));
+    }
+
+    @Test
+    public void writePrimitivesAsTable() {
+        final Primitives origin = new Primitives(278_278);
+        final TabularWriter<Primitives> writer =
+                TabularWriter.of(primitives, TabularWriter.Format.CSV, new Discard(), 1 << 16);
+        // formatting floating point values still involves a String each
+        Allocations.assertBudget("TabularWriter.write(Primitives)", 2 * 64, () -> {
+            try {
+                writer.write(origin);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static class Primitives {
+
+        private boolean aBoolean;
+        private byte aByte;
+        private short aShort;
+        private char aChar;
+        private int anInt;
+        private long aLong;
+        private float aFloat;
+        private double aDouble;
+
+        private Primitives(final int seed) {
+            aBoolean = 0 != (seed & 1);
+            aByte = (byte) seed;
+            aShort = (short) seed;
+            aChar = (char) seed;
+            anInt = seed;
+            aLong = seed * 1000L;
+            aFloat = seed / 3.0f;
+            aDouble = seed / 7.0;
+        }
+    }
+
+    private static class References {
+
+        private String first;
+        private String second;
+        private String third;
+
+        private References(final String first, final String second, final String third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+    }
+
+    private static class Discard implements WritableByteChannel {
+
+        @Override
+        public int write(final ByteBuffer src) {
+            final int result = src.remaining();
+            src.position(src.limit());
+            return result;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
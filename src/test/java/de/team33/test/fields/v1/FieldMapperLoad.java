@@ -0,0 +1,119 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.test.fields.common.Load;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives {@link FieldMapper#FACTORY}, {@link FieldMapper#copy(Object, Object)} and
+ * {@link FieldMapper#map(Object, Map)} from a configurable number of threads over a mix of class shapes.
+ * <p>
+ * Not part of the regular build, run it via {@code mvn -P load test} (see {@link Load} for the configuration).
+ */
+public class FieldMapperLoad {
+
+    private static final Class<?>[] SHAPES = {Small.class, Wide.class, Deep.class, Mixed.class};
+
+    private static final Object[] SAMPLES = {
+            new Small(1, "small", 2L), new Wide(), new Deep(), new Mixed("mixed", 278, new int[]{1, 2, 3})};
+
+    private static void assertNoFailures(final List<Load.Result> results) {
+        results.forEach(result -> assertTrue(0 < result.latency.count()));
+    }
+
+    private static <E> E pick(final E[] elements, final long count) {
+        return elements[(int) (count % elements.length)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> FieldMapper<T> mapper(final T sample) {
+        return FieldMapper.FACTORY.mapperFor((Class<T>) sample.getClass());
+    }
+
+    private static <T> void copy(final T sample) {
+        final FieldMapper<T> mapper = mapper(sample);
+        mapper.copy(sample, mapper.newInstance());
+    }
+
+    private static <T> void map(final T sample) {
+        mapper(sample).map(sample, new HashMap<>());
+    }
+
+    @Test
+    public void mapperFor() {
+        assertNoFailures(Load.run("FACTORY.mapperFor", count -> FieldMapper.FACTORY.mapperFor(
+                pick(SHAPES, count)), System.out));
+    }
+
+    @Test
+    public void copy() {
+        assertNoFailures(Load.run("copy(T, T)", count -> copy(pick(SAMPLES, count)), System.out));
+    }
+
+    @Test
+    public void map() {
+        assertNoFailures(Load.run("map(T, Map)", count -> map(pick(SAMPLES, count)), System.out));
+    }
+
+    private static class Small {
+
+        private int anInt;
+        private String aString;
+        private long aLong;
+
+        private Small(final int anInt, final String aString, final long aLong) {
+            this.anInt = anInt;
+            this.aString = aString;
+            this.aLong = aLong;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Wide {
+
+        private int f00 = 0, f01 = 1, f02 = 2, f03 = 3, f04 = 4, f05 = 5, f06 = 6, f07 = 7;
+        private long f08 = 8, f09 = 9, f10 = 10, f11 = 11, f12 = 12, f13 = 13, f14 = 14, f15 = 15;
+        private double f16 = 16, f17 = 17, f18 = 18, f19 = 19, f20 = 20, f21 = 21, f22 = 22, f23 = 23;
+        private String f24 = "24", f25 = "25", f26 = "26", f27 = "27", f28 = "28", f29 = "29", f30 = "30", f31 = "31";
+    }
+
+    @SuppressWarnings("unused")
+    private static class DeepBase {
+
+        private int level0 = 0;
+        private String name0 = "base";
+    }
+
+    @SuppressWarnings("unused")
+    private static class DeepMiddle extends DeepBase {
+
+        private int level1 = 1;
+        private String name1 = "middle";
+    }
+
+    @SuppressWarnings("unused")
+    private static class Deep extends DeepMiddle {
+
+        private int level2 = 2;
+        private String name2 = "deep";
+    }
+
+    private static class Mixed {
+
+        private final String name;
+        private final Integer boxed;
+        private final int[] values;
+
+        private Mixed(final String name, final Integer boxed, final int[] values) {
+            this.name = name;
+            this.boxed = boxed;
+            this.values = values;
+        }
+    }
+}
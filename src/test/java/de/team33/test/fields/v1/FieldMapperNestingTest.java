@@ -0,0 +1,93 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FieldMapperNestingTest {
+
+    private final FieldMapper<Person> subject = FieldMapper.FACTORY.mapperFor(Person.class);
+
+    @Test
+    public void sameMapper() {
+        assertSame(subject, FieldMapper.FACTORY.mapperFor(Person.class));
+    }
+
+    @Test
+    public void flatten() {
+        final Person origin = new Person("Harry", new Address("Springfield", 12345), new Person("Sally", null, null));
+        final Map<String, Object> expected = new TreeMap<>();
+        expected.put("name", "Harry");
+        expected.put("address.city", "Springfield");
+        expected.put("address.zip", 12345);
+        expected.put("partner", origin.partner);
+        assertEquals(expected, subject.flatten(origin, new TreeMap<>()));
+    }
+
+    @Test
+    public void flattenNull() {
+        final Person origin = new Person("Harry", null, null);
+        final Map<String, Object> result = subject.flatten(origin, new TreeMap<>());
+        assertEquals(Arrays.asList("address", "name", "partner"), Arrays.asList(result.keySet().toArray()));
+        assertNull(result.get("address"));
+    }
+
+    @Test
+    public void unflatten() {
+        final Person origin = new Person("Harry", new Address("Springfield", 12345), null);
+        final Map<String, Object> stage = subject.flatten(origin, new TreeMap<>());
+        final Person result = subject.unflatten(stage, subject.newInstance());
+        assertEquals(Person.toList(origin), Person.toList(result));
+    }
+
+    @Test
+    public void unflattenInPlace() {
+        final Address address = new Address("Springfield", 12345);
+        final Person target = new Person("Harry", address, null);
+        final Map<String, Object> origin = subject.flatten(new Person("Sally", new Address("Shelbyville", 54321), null),
+                                                           new TreeMap<>());
+        final Person result = subject.unflatten(origin, target);
+        assertSame(address, result.address);
+        assertEquals("Shelbyville", address.city);
+        assertEquals(54321, address.zip);
+    }
+
+    private static class Person {
+
+        private String name;
+        private Address address;
+        private Person partner;
+
+        private Person(final String name, final Address address, final Person partner) {
+            this.name = name;
+            this.address = address;
+            this.partner = partner;
+        }
+
+        private static List<Object> toList(final Person person) {
+            return Arrays.asList(person.name,
+                                 (null == person.address) ? null : person.address.city,
+                                 (null == person.address) ? null : person.address.zip,
+                                 person.partner);
+        }
+    }
+
+    private static class Address {
+
+        private String city;
+        private int zip;
+
+        private Address(final String city, final int zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+    }
+}
@@ -12,8 +12,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class FieldMapperTest {
 
@@ -61,6 +65,123 @@ public class FieldMapperTest {
         assertEquals(origin, result);
     }
 
+    @Test
+    public void copyToNew() {
+        final Sample origin = new Sample();
+        final Sample result = subject.copy(origin);
+        assertNotSame(origin, result);
+        assertEquals(origin, result);
+    }
+
+    @Test
+    public void mapToNew() {
+        final Sample origin = new Sample();
+        final Sample result = subject.map(subject.map(origin, new TreeMap<>()));
+        assertEquals(origin, result);
+    }
+
+    @Test
+    public void newInstanceSkipsConstructor() {
+        final FieldMapper<Expensive> mapper = FieldMapper.FACTORY.mapperFor(Expensive.class);
+        final int before = Expensive.constructed.get();
+        final Expensive result = mapper.newInstance();
+        assertEquals(before, Expensive.constructed.get());
+        assertNull(result.text);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void newInstanceOfInterface() {
+        FieldMapper.FACTORY.mapperFor(Runnable.class).newInstance();
+    }
+
+    @Test
+    public void patch() {
+        final Sample origin = new Sample();
+        final Map<String, Object> patch = new TreeMap<>();
+        patch.put("privateFinalString", "patched");
+        patch.put("unknown", 278);
+        final Sample result = subject.patch(patch, subject.copy(origin));
+        assertEquals(Arrays.asList(superSampleFields(origin),
+                                   origin.privateFinalInt,
+                                   origin.privateFinalDouble,
+                                   "patched",
+                                   origin.privateFinalDate), sampleFields(result));
+    }
+
+    @Test
+    public void patchLargeMap() {
+        final Sample origin = new Sample();
+        final Map<String, Object> patch = subject.map(origin, new TreeMap<>());
+        patch.put("privateFinalDate", null);
+        patch.put("unknown1", 1);
+        patch.put("unknown2", 2);
+        final Map<Object, Object> unmapped = new TreeMap<>();
+        final Sample result = subject.patch(patch, new Sample(), unmapped::put);
+        assertEquals(Arrays.asList(superSampleFields(origin),
+                                   origin.privateFinalInt,
+                                   origin.privateFinalDouble,
+                                   origin.privateFinalString,
+                                   null), sampleFields(result));
+        assertEquals(ImmutableMap.of("unknown1", 1, "unknown2", 2), unmapped);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void patchFail() {
+        subject.patch(ImmutableMap.of("unknown", 278), new Sample(), FieldMapper.Unmapped.FAIL);
+    }
+
+    @Test
+    public void names() {
+        assertEquals(Arrays.asList(".privateFinalInt", ".privateFinalDouble",
+                                   "privateFinalInt", "privateFinalDouble", "privateFinalString", "privateFinalDate"),
+                     subject.names());
+        assertEquals(subject.names().size(), subject.size());
+        for (int index = 0; index < subject.size(); ++index) {
+            assertEquals(index, subject.indexOf(subject.nameOf(index)));
+        }
+        assertEquals(-1, subject.indexOf("unknown"));
+    }
+
+    @Test
+    public void indexBased() {
+        final Sample origin = new Sample();
+        final int intIndex = subject.indexOf("privateFinalInt");
+        final int stringIndex = subject.indexOf("privateFinalString");
+        assertEquals(origin.privateFinalInt, subject.getInt(origin, intIndex));
+        assertEquals(origin.privateFinalInt, subject.getLong(origin, intIndex));
+        assertEquals(origin.privateFinalString, subject.get(origin, stringIndex));
+
+        final Sample target = subject.setInt(new Sample(), intIndex, 278);
+        subject.set(target, stringIndex, "a string");
+        assertEquals(278, target.privateFinalInt);
+        assertEquals("a string", target.privateFinalString);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexBasedMismatch() {
+        subject.setInt(new Sample(), subject.indexOf("privateFinalString"), 278);
+    }
+
+    @Test
+    public void reset() {
+        final Sample result = subject.reset(new Sample());
+        assertEquals(Arrays.asList(Arrays.asList(0, null), 0, null, null, null), sampleFields(result));
+    }
+
+    @Test
+    public void canonicalKeys() {
+        final FieldMapper<Sample> other = FieldMapper.factory(Fields.Mapping.INSTANCE_DEEP).mapperFor(Sample.class);
+        final Map<String, Object> result = subject.map(new Sample(), new TreeMap<>());
+        final Map<String, Object> otherResult = other.map(new Sample(), new TreeMap<>());
+        for (final String key : result.keySet()) {
+            assertSame(key, otherResult.keySet().stream().filter(key::equals).findAny().orElse(null));
+        }
+        assertSame("privateFinalDate", result.keySet().stream().filter("privateFinalDate"::equals).findAny()
+                                             .orElse(null));
+        assertSame(Fields.canonicalKey(new String(".privateFinalInt")),
+                   subject.nameOf(subject.indexOf(".privateFinalInt")));
+    }
+
     private int anyInt() {
         return random.nextInt();
     }
@@ -92,6 +213,18 @@ public class FieldMapperTest {
                 sample.privateFinalDate);
     }
 
+    private static class Expensive {
+
+        private static final AtomicInteger constructed = new AtomicInteger();
+
+        private final String text;
+
+        private Expensive() {
+            constructed.incrementAndGet();
+            text = "constructed";
+        }
+    }
+
     private class SuperSample {
 
         private final int privateFinalInt;
@@ -0,0 +1,144 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.FieldStore;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FieldStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random();
+    private final FieldMapper<Record> mapper = FieldMapper.FACTORY.mapperFor(Record.class);
+
+    @Test
+    public void appendAndRead() throws IOException {
+        final Path path = folder.getRoot().toPath().resolve("records");
+        final List<Record> records = IntStream.range(0, 100).mapToObj(i -> new Record(random))
+                                              .collect(Collectors.toList());
+        try (final FieldStore<Record> store = FieldStore.open(mapper, path)) {
+            assertEquals(0, store.append(records.get(0)));
+            assertEquals(1, store.append(records.subList(1, records.size())));
+            assertEquals(records.size(), store.size());
+            for (int index = 0; index < records.size(); ++index) {
+                assertEquals(records.get(index).toList(), store.read(index).toList());
+            }
+        }
+    }
+
+    @Test
+    public void reopen() throws IOException {
+        final Path path = folder.getRoot().toPath().resolve("records");
+        final Record first = new Record(random);
+        final Record second = new Record(random);
+        try (final FieldStore<Record> store = FieldStore.open(mapper, path)) {
+            store.append(first);
+        }
+        try (final FieldStore<Record> store = FieldStore.open(mapper, path)) {
+            assertEquals(1, store.size());
+            assertEquals(1, store.append(second));
+        }
+        try (final FieldStore<Record> store = FieldStore.open(mapper, path)) {
+            assertEquals(2, store.size());
+            assertEquals(first.toList(), store.read(0, new Record(random)).toList());
+            assertEquals(second.toList(), store.read(1, new Record(random)).toList());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void readOutOfBounds() throws IOException {
+        try (final FieldStore<Record> store = FieldStore.open(mapper, folder.getRoot().toPath().resolve("empty"))) {
+            store.read(0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatibleSchema() throws IOException {
+        final Path path = folder.getRoot().toPath().resolve("records");
+        FieldStore.open(mapper, path).close();
+        FieldStore.open(FieldMapper.FACTORY.mapperFor(Other.class), path);
+    }
+
+    @Test
+    public void failingIndexClosesData() throws IOException {
+        final Path descriptors = Paths.get("/proc/self/fd");
+        Assume.assumeTrue(Files.isDirectory(descriptors));
+        final Path path = folder.getRoot().toPath().resolve("records");
+        Files.createDirectory(path.resolveSibling("records.index"));
+        final long before = count(descriptors);
+        try {
+            FieldStore.open(mapper, path);
+            fail("expected to fail - but was opened");
+        } catch (IOException e) {
+            assertEquals(before, count(descriptors));
+        }
+    }
+
+    private static long count(final Path directory) throws IOException {
+        try (final Stream<Path> entries = Files.list(directory)) {
+            return entries.count();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedType() throws IOException {
+        FieldStore.open(FieldMapper.FACTORY.mapperFor(Unsupported.class), folder.getRoot().toPath().resolve("x"));
+    }
+
+    private static class Record {
+
+        private boolean aBoolean;
+        private char aChar;
+        private int anInt;
+        private long aLong;
+        private double aDouble;
+        private Integer anInteger;
+        private String aString;
+        private TimeUnit anEnum;
+
+        private Record(final Random random) {
+            aBoolean = random.nextBoolean();
+            aChar = (char) random.nextInt();
+            anInt = random.nextInt();
+            aLong = random.nextLong();
+            aDouble = random.nextDouble();
+            anInteger = random.nextBoolean() ? null : random.nextInt();
+            aString = random.nextBoolean() ? null : "äöü-" + random.nextInt();
+            anEnum = TimeUnit.values()[random.nextInt(TimeUnit.values().length)];
+        }
+
+        private List<Object> toList() {
+            return Arrays.asList(aBoolean, aChar, anInt, aLong, aDouble, anInteger, aString, anEnum);
+        }
+    }
+
+    private static class Other {
+
+        private int anInt;
+    }
+
+    private static class Unsupported {
+
+        private BigDecimal aBigDecimal;
+    }
+}
@@ -0,0 +1,75 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.Fields;
+import org.junit.Test;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FieldsAnnotationTest {
+
+    private static List<String> names(final Class<?> type, final Fields.Filter filter) {
+        return Fields.deepStreamOf(type)
+                     .filter(filter)
+                     .map(Field::getName)
+                     .collect(Collectors.toList());
+    }
+
+    @Test
+    public void annotatedWith() {
+        assertEquals(Arrays.asList("persistent", "exported"),
+                     names(Base.class, Fields.Filter.annotatedWith(Persistent.class)));
+        assertEquals(Collections.singletonList("exported"),
+                     names(Base.class, Fields.Filter.annotatedWith(Exported.class)));
+    }
+
+    @Test
+    public void declaredInClassAnnotatedWith() {
+        assertEquals(Arrays.asList("persistent", "exported", "plain", "derived"),
+                     names(Derived.class, Fields.Filter.declaredInClassAnnotatedWith(Persistent.class)));
+        assertEquals(Collections.emptyList(),
+                     names(Derived.class, Fields.Filter.declaredInClassAnnotatedWith(Exported.class)));
+    }
+
+    @Test
+    public void mapping() {
+        assertEquals(Arrays.asList(".persistent", ".exported"),
+                     Arrays.asList(Fields.Mapping.annotatedWith(Persistent.class)
+                                                 .apply(Derived.class)
+                                                 .keySet()
+                                                 .toArray()));
+    }
+
+    @Inherited
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface Persistent {
+    }
+
+    @Persistent
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface Exported {
+    }
+
+    @Persistent
+    private static class Base {
+
+        @Persistent
+        private int persistent;
+        @Exported
+        private String exported;
+        private long plain;
+    }
+
+    private static class Derived extends Base {
+
+        private int derived;
+    }
+}
@@ -0,0 +1,101 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.Fields;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FieldsLazyMappingTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deferred() throws NoSuchFieldException {
+        final Map<String, Field> mapping = Fields.Mapping.LAZY_SIGNIFICANT_FLAT.apply(Subject.class);
+        assertEquals(Arrays.asList("anInt", "aString", "aLong"), new ArrayList<>(mapping.keySet()));
+        assertFalse(Subject.class.getDeclaredField("anInt").isAccessible());
+
+        final Field anInt = mapping.get("anInt");
+        assertTrue(anInt.isAccessible());
+        assertEquals(Subject.class.getDeclaredField("anInt"), anInt);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unmodifiable() {
+        Fields.Mapping.LAZY_SIGNIFICANT_FLAT.apply(Subject.class).remove("anInt");
+    }
+
+    @Test
+    public void equalToEager() {
+        assertEquals(Fields.Mapping.SIGNIFICANT_DEEP.apply(Subject.class),
+                     Fields.Mapping.LAZY_SIGNIFICANT_DEEP.apply(Subject.class));
+    }
+
+    @Test
+    public void mapper() {
+        final FieldMapper<Subject> mapper = FieldMapper.factory(Fields.Mapping.LAZY_SIGNIFICANT_DEEP)
+                                                       .mapperFor(Subject.class);
+        final Subject subject = new Subject(278, "a string", -1L);
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("anInt", 278);
+        expected.put("aString", "a string");
+        expected.put("aLong", -1L);
+        assertEquals(expected, mapper.map(subject, new HashMap<>()));
+        assertEquals(-1L, mapper.getLong(mapper.copy(subject), mapper.indexOf("aLong")));
+        assertEquals(278, mapper.accessor("anInt").getInt(subject));
+    }
+
+    @Test
+    public void concurrentFirstAccess() throws InterruptedException {
+        final int threads = 8;
+        final Subject subject = new Subject(278, "a string", -1L);
+        final List<Throwable> problems = Collections.synchronizedList(new ArrayList<>());
+        for (int round = 0; round < 100; ++round) {
+            // a new factory -> a new mapper -> fields that are not yet accessible ...
+            final FieldMapper<Subject> mapper = FieldMapper.factory(Fields.Mapping.LAZY_SIGNIFICANT_FLAT)
+                                                           .mapperFor(Subject.class);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> workers = new ArrayList<>();
+            for (int index = 0; index < threads; ++index) {
+                workers.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        assertEquals(278, mapper.map(subject, new HashMap<>()).get("anInt"));
+                    } catch (Throwable e) {
+                        problems.add(e);
+                    }
+                }));
+            }
+            workers.forEach(Thread::start);
+            start.countDown();
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+        }
+        assertEquals(Collections.emptyList(), problems);
+    }
+
+    private static class Subject {
+
+        private final int anInt;
+        private final String aString;
+        private final long aLong;
+
+        private Subject(final int anInt, final String aString, final long aLong) {
+            this.anInt = anInt;
+            this.aString = aString;
+            this.aLong = aLong;
+        }
+    }
+}
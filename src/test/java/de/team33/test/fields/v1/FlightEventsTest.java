@@ -0,0 +1,105 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.Fields;
+import de.team33.libs.fields.v1.JsonWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Records the custom JFR events of this library, if JFR is available. As the library does not depend on
+ * {@code jdk.jfr}, neither does this test: the recording API is used reflectively.
+ */
+public class FlightEventsTest {
+
+    private static final String PREFIX = "de.team33.libs.fields.";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static Class<?> recordingClass() {
+        try {
+            return Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Before
+    public void before() {
+        assumeTrue("JFR is not available", null != recordingClass());
+    }
+
+    @Test
+    public void recorded() throws Exception {
+        final Class<?> recordingClass = recordingClass();
+        final Object recording = recordingClass.getConstructor().newInstance();
+        for (final String name : Arrays.asList("MappingResolution", "MapperConstruction", "BulkOperation")) {
+            final Object settings = recordingClass.getMethod("enable", String.class).invoke(recording, PREFIX + name);
+            settings.getClass().getMethod("withThreshold", Duration.class).invoke(settings, Duration.ZERO);
+        }
+        recordingClass.getMethod("start").invoke(recording);
+
+        final FieldMapper<Subject> mapper = FieldMapper.factory(Fields.Mapping.SIGNIFICANT_FLAT)
+                                                       .mapperFor(Subject.class);
+        JsonWriter.of(mapper).toBytes(Arrays.asList(new Subject(), new Subject()));
+
+        recordingClass.getMethod("stop").invoke(recording);
+        final Path path = folder.getRoot().toPath().resolve("recording.jfr");
+        recordingClass.getMethod("dump", Path.class).invoke(recording, path);
+        recordingClass.getMethod("close").invoke(recording);
+
+        final List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                                              .getMethod("readAllEvents", Path.class)
+                                              .invoke(null, path);
+        final List<String> names = events.stream()
+                                         .filter(event -> Subject.class.getName()
+                                                                       .equals(value(event, "subjectClass.name")))
+                                         .map(event -> value(event, "eventType.name") + ":"
+                                                 + value(event, "strategy"))
+                                         .collect(Collectors.toList());
+        assertTrue(names.toString(), names.contains(PREFIX + "MappingResolution:SIGNIFICANT_FLAT"));
+        assertTrue(names.toString(), names.contains(PREFIX + "MapperConstruction:SIGNIFICANT_FLAT"));
+        assertTrue(names.toString(), names.contains(PREFIX + "BulkOperation:JsonWriter.writeArray"));
+        final Object bulk = events.stream()
+                                  .filter(event -> (PREFIX + "BulkOperation").equals(value(event, "eventType.name")))
+                                  .findAny()
+                                  .orElseThrow(AssertionError::new);
+        assertEquals(2L, value(bulk, "items"));
+        assertEquals(2, value(bulk, "fieldCount"));
+    }
+
+    private static Object value(final Object event, final String path) {
+        try {
+            if ("eventType.name".equals(path)) {
+                final Object type = event.getClass().getMethod("getEventType").invoke(event);
+                return type.getClass().getMethod("getName").invoke(type);
+            }
+            if ("subjectClass.name".equals(path)) {
+                final Object type = event.getClass().getMethod("getClass", String.class).invoke(event, "subjectClass");
+                return type.getClass().getMethod("getName").invoke(type);
+            }
+            return event.getClass().getMethod("getValue", String.class).invoke(event, path);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Subject {
+
+        private int anInt = 278;
+        private String aString = "a string";
+    }
+}
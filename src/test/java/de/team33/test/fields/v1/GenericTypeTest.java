@@ -0,0 +1,80 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.Fields;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GenericTypeTest {
+
+    private static final FieldMapper<Concrete> MAPPER = FieldMapper.FACTORY.mapperFor(Concrete.class);
+
+    private static Type expected(final String name) throws NoSuchFieldException {
+        return Expected.class.getDeclaredField(name).getGenericType();
+    }
+
+    @Test
+    public void variable() {
+        assertEquals(String.class, MAPPER.genericType("..value"));
+        assertEquals(Integer.class, MAPPER.genericType(".number"));
+    }
+
+    @Test
+    public void parameterized() throws NoSuchFieldException {
+        assertEquals(expected("values"), MAPPER.genericType("..values"));
+        assertEquals(expected("entries"), MAPPER.genericType(".entries"));
+        assertEquals(MAPPER.genericType(".entries"), expected("entries"));
+        assertEquals(expected("entries").hashCode(), MAPPER.genericType(".entries").hashCode());
+    }
+
+    @Test
+    public void array() {
+        assertEquals(String[].class, MAPPER.genericType("..array"));
+    }
+
+    @Test
+    public void cached() throws NoSuchFieldException {
+        final Field field = Base.class.getDeclaredField("values");
+        assertSame(Fields.genericType(Concrete.class, field), Fields.genericType(Concrete.class, field));
+    }
+
+    @Test
+    public void unbound() throws NoSuchFieldException {
+        final Field field = Base.class.getDeclaredField("value");
+        assertTrue(Fields.genericType(Base.class, field) instanceof TypeVariable);
+        final Type values = Fields.genericType(Middle.class, Base.class.getDeclaredField("values"));
+        assertEquals(expected("values"), values);
+    }
+
+    private static class Base<T> {
+
+        private T value;
+        private List<? extends T> values;
+        private T[] array;
+    }
+
+    private static class Middle<N extends Number> extends Base<String> {
+
+        private N number;
+        private Map<N, List<String>> entries;
+    }
+
+    private static class Concrete extends Middle<Integer> {
+    }
+
+    @SuppressWarnings("unused")
+    private static class Expected {
+
+        private List<? extends String> values;
+        private Map<Integer, List<String>> entries;
+    }
+}
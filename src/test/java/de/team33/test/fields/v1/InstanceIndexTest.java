@@ -0,0 +1,137 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.InstanceIndex;
+import org.junit.Test;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InstanceIndexTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    private static List<Subject> subjects(final int count) {
+        return IntStream.range(0, count)
+                        .mapToObj(index -> new Subject(index, index % 7, "name" + (index % 3), index - 50.5))
+                        .collect(Collectors.toList());
+    }
+
+    @Test
+    public void hashPrimitive() {
+        final List<Subject> subjects = subjects(1000);
+        final InstanceIndex.Hash<Subject> index = InstanceIndex.hash(MAPPER, "group");
+        index.addAll(subjects);
+        assertEquals(1000, index.size());
+        assertEquals(143, index.find(3L).size());
+        assertEquals(index.find(3L), index.find(3));
+        assertTrue(index.find(7L).isEmpty());
+    }
+
+    @Test
+    public void hashReference() {
+        final InstanceIndex.Hash<Subject> index = InstanceIndex.hash(MAPPER, "name");
+        index.addAll(subjects(30));
+        assertEquals(10, index.find("name1").size());
+        assertTrue(index.find(null).isEmpty());
+    }
+
+    @Test
+    public void addRemoveUpdate() {
+        final Subject subject = new Subject(1, 2, "a name", 0.0);
+        final InstanceIndex.Hash<Subject> index = InstanceIndex.hash(MAPPER, "group");
+        assertTrue(index.add(subject));
+        assertFalse(index.add(subject));
+        assertFalse(index.update(subject));
+
+        subject.group = 5;
+        assertEquals(Collections.singleton(subject), index.find(2L));
+        assertTrue(index.update(subject));
+        assertTrue(index.find(2L).isEmpty());
+        assertEquals(Collections.singleton(subject), index.find(5L));
+
+        assertTrue(index.remove(subject));
+        assertFalse(index.remove(subject));
+        assertEquals(0, index.size());
+        assertTrue(index.find(5L).isEmpty());
+    }
+
+    @Test
+    public void addAllUnstableOrder() {
+        final List<Subject> subjects = subjects(100);
+        final InstanceIndex.Hash<Subject> index = InstanceIndex.hash(MAPPER, "id");
+        index.addAll(new AbstractCollection<Subject>() {
+            private boolean reversed = false;
+
+            @Override
+            public Iterator<Subject> iterator() {
+                final List<Subject> result = new ArrayList<>(subjects);
+                if (reversed) {
+                    Collections.reverse(result);
+                }
+                reversed = !reversed;
+                return result.iterator();
+            }
+
+            @Override
+            public int size() {
+                return subjects.size();
+            }
+        });
+        subjects.forEach(subject -> assertEquals(Collections.singleton(subject), index.find(subject.id)));
+    }
+
+    @Test
+    public void sortedPrimitive() {
+        final InstanceIndex.Sorted<Subject> index = InstanceIndex.sorted(MAPPER, "value");
+        index.addAll(subjects(100));
+        assertEquals(Arrays.asList(-2.5, -1.5, -0.5, 0.5),
+                     index.range(-3.0, 1.0).stream().map(subject -> subject.value).collect(Collectors.toList()));
+        assertEquals(2, index.atLeast(47.0).size());
+        assertEquals(2, index.lessThan(-49.0).size());
+    }
+
+    @Test
+    public void sortedReference() {
+        final InstanceIndex.Sorted<Subject> index = InstanceIndex.sorted(MAPPER, "name");
+        final List<Subject> subjects = subjects(9);
+        subjects.get(0).name = null;
+        index.addAll(subjects);
+        assertEquals(new HashSet<>(subjects.subList(1, 9)),
+                     new HashSet<>(index.range("name0", "name3")));
+        assertEquals(Collections.singleton(subjects.get(0)), index.find(null));
+        assertEquals(3, index.atLeast("name2").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notComparable() {
+        InstanceIndex.sorted(MAPPER, "other");
+    }
+
+    private static class Subject {
+
+        private final long id;
+        private int group;
+        private String name;
+        private double value;
+        private Object other;
+
+        private Subject(final long id, final int group, final String name, final double value) {
+            this.id = id;
+            this.group = group;
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.InstancePool;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class InstancePoolTest {
+
+    private final FieldMapper<Subject> mapper = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    @Test
+    public void takeNew() {
+        final InstancePool<Subject> pool = mapper.pool(Subject::new);
+        assertNotSame(pool.take(), pool.take());
+    }
+
+    @Test
+    public void releaseAndTake() {
+        final InstancePool<Subject> pool = mapper.pool(Subject::new);
+        final Subject subject = pool.map(origin(278, "a text"));
+        assertEquals(278, subject.anInt);
+        assertEquals("a text", subject.aString);
+
+        pool.release(subject);
+        assertEquals(0, subject.anInt);
+        assertNull(subject.aString);
+        assertSame(subject, pool.take());
+    }
+
+    @Test
+    public void capacity() {
+        final InstancePool<Subject> pool = mapper.pool(Subject::new, 0);
+        final Subject subject = pool.take();
+        pool.release(subject);
+        assertNotSame(subject, pool.take());
+    }
+
+    @Test
+    public void perThread() throws InterruptedException {
+        final InstancePool<Subject> pool = mapper.pool(Subject::new);
+        final Subject subject = pool.take();
+        pool.release(subject);
+
+        final AtomicReference<Subject> other = new AtomicReference<>();
+        final Thread thread = new Thread(() -> other.set(pool.take()));
+        thread.start();
+        thread.join();
+        assertNotSame(subject, other.get());
+        assertSame(subject, pool.take());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCapacity() {
+        mapper.pool(Subject::new, -1);
+    }
+
+    private static Map<String, Object> origin(final int anInt, final String aString) {
+        final Map<String, Object> result = new HashMap<>();
+        result.put("anInt", anInt);
+        result.put("aString", aString);
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static class Subject {
+
+        private int anInt;
+        private String aString;
+    }
+}
@@ -0,0 +1,139 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.JsonWriter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonWriterTest {
+
+    private final FieldMapper<Item> mapper = FieldMapper.FACTORY.mapperFor(Item.class);
+    private final JsonWriter<Item> subject = JsonWriter.of(mapper);
+
+    @Test
+    public void toBytes() {
+        final Item item = new Item(-278, 0.5, true, "say \"hi\"\n\u0001 😀", TimeUnit.SECONDS,
+                                   new Part('x', Double.NaN, Arrays.asList(1, null, "two")), new int[]{3, 4});
+        assertEquals(object(item, "-278", "0.5", "true", "\"say \\\"hi\\\"\\n\\u0001 😀\"", "\"SECONDS\"",
+                            part("\"x\"", "null", "[1,null,\"two\"]"), "[3,4]"),
+                     new String(subject.toBytes(item), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void nullValues() {
+        final Item item = new Item(0, 0.0, false, null, null, null, null);
+        assertEquals(object(item, "0", "0.0", "false", "null", "null", "null", "null"),
+                     new String(subject.toBytes(item), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeArray() throws IOException {
+        final Item first = new Item(1, 1.0, true, "first", null, null, null);
+        final Item second = new Item(2, 2.0, false, "second", null, new Part('y', 3.0, Collections.emptyList()),
+                                     new int[0]);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.writeArray(Arrays.asList(first, second), out);
+        final String expected = "["
+                + object(first, "1", "1.0", "true", "\"first\"", "null", "null", "null") + ","
+                + object(second, "2", "2.0", "false", "\"second\"", "null",
+                         part("\"y\"", "3.0", "[]"), "[]")
+                + "]";
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected, new String(subject.toBytes(Arrays.asList(first, second)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void nestedWrite() throws IOException {
+        final Item inner = new Item(3, 3.0, true, "inner", null, null, null);
+        final Object nested = new Object() {
+            @Override
+            public String toString() {
+                try {
+                    subject.write(inner, new ByteArrayOutputStream());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "nested";
+            }
+        };
+        final Item outer = new Item(4, 4.0, false, "outer", null,
+                                    new Part('z', 5.0, Collections.singletonList(nested)), null);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.write(outer, out);
+        assertEquals(object(outer, "4", "4.0", "false", "\"outer\"", "null",
+                            part("\"z\"", "5.0", "[\"nested\"]"), "null"),
+                     new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private String object(final Item item, final String... values) {
+        return object(mapper.map(item, new LinkedHashMap<>()),
+                      new String[]{"anInt", "aDouble", "aBoolean", "aString", "anEnum", "aPart", "anArray"},
+                      values);
+    }
+
+    private static String part(final String... values) {
+        final Part part = new Part(' ', 0.0, null);
+        return object(FieldMapper.FACTORY.mapperFor(Part.class).map(part, new LinkedHashMap<>()),
+                      new String[]{"aChar", "aDouble", "aList"},
+                      values);
+    }
+
+    /**
+     * Arranges expected values, given in declaration order, in the mapper's field order.
+     */
+    private static String object(final Map<String, Object> mapped, final String[] names, final String[] values) {
+        final Map<String, String> byName = new LinkedHashMap<>();
+        for (int index = 0; index < names.length; ++index) {
+            byName.put(names[index], values[index]);
+        }
+        return mapped.keySet().stream()
+                     .map(name -> "\"" + name + "\":" + byName.get(name))
+                     .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static class Item {
+
+        private final int anInt;
+        private final double aDouble;
+        private final boolean aBoolean;
+        private final String aString;
+        private final TimeUnit anEnum;
+        private final Part aPart;
+        private final int[] anArray;
+
+        private Item(final int anInt, final double aDouble, final boolean aBoolean, final String aString,
+                     final TimeUnit anEnum, final Part aPart, final int[] anArray) {
+            this.anInt = anInt;
+            this.aDouble = aDouble;
+            this.aBoolean = aBoolean;
+            this.aString = aString;
+            this.anEnum = anEnum;
+            this.aPart = aPart;
+            this.anArray = anArray;
+        }
+    }
+
+    private static class Part {
+
+        private final char aChar;
+        private final double aDouble;
+        private final java.util.List<?> aList;
+
+        private Part(final char aChar, final double aDouble, final java.util.List<?> aList) {
+            this.aChar = aChar;
+            this.aDouble = aDouble;
+            this.aList = aList;
+        }
+    }
+}
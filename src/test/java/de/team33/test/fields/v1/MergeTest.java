@@ -0,0 +1,91 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.MergePolicy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MergeTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    private static List<Object> values(final Subject subject) {
+        return Arrays.asList(subject.anInt, subject.aDouble, subject.aBoolean, subject.aString, subject.aList);
+    }
+
+    @Test
+    public void nonNull() {
+        final Subject origin = new Subject(0, 2.5, false, null, Collections.singletonList("x"));
+        final Subject target = new Subject(5, 0.0, true, "target", null);
+        assertSame(target, MAPPER.merge(origin, target, MergePolicy.NON_NULL));
+        assertEquals(Arrays.asList(0, 2.5, false, "target", Collections.singletonList("x")), values(target));
+    }
+
+    @Test
+    public void nonDefault() {
+        final Subject origin = new Subject(0, -0.0, false, null, Collections.emptyList());
+        final Subject target = new Subject(5, 1.0, true, "target", null);
+        MAPPER.merge(origin, target, MergePolicy.NON_DEFAULT);
+        assertEquals(Arrays.asList(5, -0.0, true, "target", Collections.emptyList()), values(target));
+    }
+
+    @Test
+    public void targetDefault() {
+        final Subject origin = new Subject(7, 2.5, true, "origin", Collections.emptyList());
+        final Subject target = new Subject(5, 0.0, false, null, Collections.singletonList("y"));
+        MAPPER.merge(origin, target, MergePolicy.TARGET_DEFAULT);
+        assertEquals(Arrays.asList(5, 2.5, true, "origin", Collections.singletonList("y")), values(target));
+    }
+
+    @Test
+    public void resolving() {
+        final Subject origin = new Subject(7, 2.5, true, "origin", null);
+        final Subject target = new Subject(5, 1.0, false, "target", null);
+        MAPPER.merge(origin, target, MergePolicy.resolving(
+                (name, originValue, targetValue) -> "anInt".equals(name)
+                        ? (Integer) originValue + (Integer) targetValue
+                        : targetValue));
+        assertEquals(Arrays.asList(12, 1.0, false, "target", null), values(target));
+    }
+
+    @Test
+    public void mergeAll() {
+        final List<Subject> origins = Arrays.asList(new Subject(1, 0.0, false, null, null),
+                                                    new Subject(0, 0.0, false, "two", null));
+        final List<Subject> targets = Arrays.asList(new Subject(0, 1.0, false, "one", null),
+                                                    new Subject(2, 2.0, false, null, null));
+        MAPPER.mergeAll(origins, targets, MergePolicy.NON_DEFAULT);
+        assertEquals(Arrays.asList(1, 1.0, false, "one", null), values(targets.get(0)));
+        assertEquals(Arrays.asList(2, 2.0, false, "two", null), values(targets.get(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeAllMismatch() {
+        MAPPER.mergeAll(Collections.singletonList(new Subject(0, 0.0, false, null, null)), Collections.emptyList(),
+                        MergePolicy.NON_NULL);
+    }
+
+    private static class Subject {
+
+        private int anInt;
+        private double aDouble;
+        private boolean aBoolean;
+        private String aString;
+        private List<String> aList;
+
+        private Subject(final int anInt, final double aDouble, final boolean aBoolean, final String aString,
+                        final List<String> aList) {
+            this.anInt = anInt;
+            this.aDouble = aDouble;
+            this.aBoolean = aBoolean;
+            this.aString = aString;
+            this.aList = aList;
+        }
+    }
+}
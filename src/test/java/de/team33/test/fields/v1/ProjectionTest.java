@@ -0,0 +1,111 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.Fields;
+import de.team33.libs.fields.v1.Projection;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectionTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+    private static final Projection<Subject> SUMMARY = MAPPER.projection("summary", "aString", "anInt");
+
+    @Test
+    public void names() {
+        assertEquals("summary", SUMMARY.name());
+        assertEquals(2, SUMMARY.size());
+        assertEquals(Arrays.asList("anInt", "aString"), SUMMARY.names());
+        assertTrue(SUMMARY.contains(MAPPER.indexOf("anInt")));
+        assertFalse(SUMMARY.contains(MAPPER.indexOf("aDouble")));
+    }
+
+    @Test
+    public void copy() {
+        final Subject origin = new Subject(278, 3.5, "a string", 'x');
+        final Subject target = new Subject(0, 1.0, null, 'y');
+        assertSame(target, MAPPER.copy(origin, target, SUMMARY));
+        assertEquals(278, target.anInt);
+        assertEquals("a string", target.aString);
+        assertEquals(1.0, target.aDouble, 0.0);
+        assertEquals('y', target.aChar);
+    }
+
+    @Test
+    public void map() {
+        final Subject origin = new Subject(278, 3.5, "a string", 'x');
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("anInt", 278);
+        expected.put("aString", "a string");
+        assertEquals(expected, MAPPER.map(origin, new HashMap<>(), SUMMARY));
+    }
+
+    @Test
+    public void diff() {
+        final Subject one = new Subject(278, Double.NaN, "a string", 'x');
+        final Subject other = new Subject(278, Double.NaN, "another string", 'y');
+        assertEquals(Arrays.asList("aString", "aChar"), MAPPER.diff(one, other).names());
+        assertEquals(Collections.singletonList("aString"), MAPPER.diff(one, other, SUMMARY).names());
+        assertEquals(Collections.emptyList(), MAPPER.diff(one, new Subject(278, Double.NaN, "a string", 'x')).names());
+    }
+
+    @Test
+    public void diffThenCopy() {
+        final Subject origin = new Subject(278, 3.5, null, 'x');
+        final Subject target = new Subject(0, 3.5, null, 'x');
+        final Projection<Subject> diff = MAPPER.diff(origin, target);
+        assertEquals(Collections.singletonList("anInt"), diff.names());
+        assertNull(MAPPER.copy(origin, target, diff).aString);
+        assertEquals(origin, target);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown() {
+        MAPPER.projection("unknown", "anInt", "unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void foreign() {
+        final FieldMapper<Subject> other = FieldMapper.factory(Fields.Mapping.SIGNIFICANT_FLAT)
+                                                      .mapperFor(Subject.class);
+        other.copy(new Subject(), new Subject(), SUMMARY);
+    }
+
+    private static class Subject {
+
+        private int anInt;
+        private double aDouble;
+        private String aString;
+        private char aChar;
+
+        private Subject() {
+        }
+
+        private Subject(final int anInt, final double aDouble, final String aString, final char aChar) {
+            this.anInt = anInt;
+            this.aDouble = aDouble;
+            this.aString = aString;
+            this.aChar = aChar;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (this == obj) || ((obj instanceof Subject) && MAPPER.diff(this, (Subject) obj).names().isEmpty());
+        }
+
+        @Override
+        public int hashCode() {
+            return anInt;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.Snapshot;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SnapshotTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+    private static final Snapshot<Subject> SNAPSHOT = MAPPER.snapshot("version");
+
+    @Test
+    public void copy() {
+        final Subject origin = new Subject();
+        origin.update(278);
+        final Subject target = new Subject();
+        assertSame(target, SNAPSHOT.copy(origin, target));
+        assertEquals(278L, target.low);
+        assertEquals(278L, target.high);
+        assertEquals(2L, target.version);
+    }
+
+    @Test
+    public void map() {
+        final Subject origin = new Subject();
+        origin.update(5);
+        final Map<String, Object> result = SNAPSHOT.map(origin, new HashMap<>());
+        assertEquals(5L, result.get("low"));
+        assertEquals(5L, result.get("high"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writing() {
+        final Subject origin = new Subject();
+        origin.version = 1;
+        MAPPER.snapshot("version", 3).copy(origin, new Subject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notVolatile() {
+        MAPPER.snapshot("low");
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException {
+        final Subject origin = new Subject();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            for (long value = 0; running.get(); ++value) {
+                origin.update(value);
+            }
+        });
+        writer.start();
+        try {
+            final Snapshot<Subject> snapshot = MAPPER.snapshot("version", Integer.MAX_VALUE);
+            final Subject target = new Subject();
+            for (int index = 0; index < 10000; ++index) {
+                snapshot.copy(origin, target);
+                assertEquals(target.low, target.high);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static class Subject {
+
+        private volatile long version;
+        private long low;
+        private long high;
+
+        private void update(final long value) {
+            version += 1;
+            low = value;
+            high = value;
+            version += 1;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.TabularWriter;
+import de.team33.libs.fields.v1.TabularWriter.Format;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class TabularWriterTest {
+
+    private final FieldMapper<Row> mapper = FieldMapper.FACTORY.mapperFor(Row.class);
+
+    @Test
+    public void csv() throws IOException {
+        final Row plain = new Row(-278, Long.MIN_VALUE, 0.5, true, 'x', 42, "plain");
+        final Row special = new Row(0, 1, -1.25, false, ',', null, "a \"quoted\", multi\r\nline 😀 text");
+        final String result = write(Format.CSV, plain, special);
+        assertEquals(header(",") + "\r\n"
+                             + row(plain, ",", "-278", "-9223372036854775808", "0.5", "true", "x", "42", "plain")
+                             + "\r\n"
+                             + row(special, ",", "0", "1", "-1.25", "false", "\",\"", "",
+                                   "\"a \"\"quoted\"\", multi\r\nline 😀 text\"")
+                             + "\r\n",
+                     result);
+    }
+
+    @Test
+    public void tsv() throws IOException {
+        final Row special = new Row(7, 8, 9.0, true, '\t', null, "tab\there\\ and\nthere");
+        final String result = write(Format.TSV, special);
+        assertEquals(header("\t") + "\n"
+                             + row(special, "\t", "7", "8", "9.0", "true", "\\t", "", "tab\\there\\\\ and\\nthere")
+                             + "\n",
+                     result);
+    }
+
+    @Test
+    public void smallBuffer() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Row row = new Row(1, 2, 3.0, true, 'y', 4, "some text that exceeds the buffer");
+        TabularWriter.of(mapper, Format.CSV, Channels.newChannel(out), 32)
+                     .writeAll(Arrays.asList(row, row, row))
+                     .flush();
+        final String expected = row(row, ",", "1", "2", "3.0", "true", "y", "4",
+                                    "some text that exceeds the buffer") + "\r\n";
+        assertEquals(expected + expected + expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void minimalBuffer() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Row row = new Row(Integer.MIN_VALUE, Long.MIN_VALUE, -1.25, false, 'z', null, "text");
+        TabularWriter.of(mapper, Format.TSV, Channels.newChannel(out), TabularWriter.MIN_CAPACITY)
+                     .write(row)
+                     .flush();
+        assertEquals(row(row, "\t", "-2147483648", "-9223372036854775808", "-1.25", "false", "z", "", "text") + "\n",
+                     new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallBuffer() {
+        TabularWriter.of(mapper, Format.CSV, Channels.newChannel(new ByteArrayOutputStream()),
+                         TabularWriter.MIN_CAPACITY - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroBuffer() {
+        TabularWriter.of(mapper, Format.CSV, Channels.newChannel(new ByteArrayOutputStream()), 0);
+    }
+
+    private String write(final Format format, final Row... rows) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final TabularWriter<Row> writer = TabularWriter.of(mapper, format, Channels.newChannel(out));
+        writer.writeHeader().writeAll(Arrays.asList(rows)).flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String header(final String delimiter) {
+        return String.join(delimiter, mapper.map(new Row(0, 0, 0, false, ' ', null, null), new LinkedHashMap<>())
+                                            .keySet());
+    }
+
+    /**
+     * Arranges expected cells, given in declaration order, in the mapper's field order.
+     */
+    private String row(final Row row, final String delimiter, final String... cells) {
+        final Map<String, String> byName = new LinkedHashMap<>();
+        final String[] names = {"anInt", "aLong", "aDouble", "aBoolean", "aChar", "anInteger", "aString"};
+        for (int index = 0; index < names.length; ++index) {
+            byName.put(names[index], cells[index]);
+        }
+        return mapper.map(row, new LinkedHashMap<>()).keySet().stream()
+                     .map(byName::get)
+                     .collect(Collectors.joining(delimiter));
+    }
+
+    private static class Row {
+
+        private final int anInt;
+        private final long aLong;
+        private final double aDouble;
+        private final boolean aBoolean;
+        private final char aChar;
+        private final Integer anInteger;
+        private final String aString;
+
+        private Row(final int anInt, final long aLong, final double aDouble, final boolean aBoolean,
+                    final char aChar, final Integer anInteger, final String aString) {
+            this.anInt = anInt;
+            this.aLong = aLong;
+            this.aDouble = aDouble;
+            this.aBoolean = aBoolean;
+            this.aChar = aChar;
+            this.anInteger = anInteger;
+            this.aString = aString;
+        }
+    }
+}
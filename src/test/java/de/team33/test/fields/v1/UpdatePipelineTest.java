@@ -0,0 +1,322 @@
+package de.team33.test.fields.v1;
+
+import de.team33.libs.fields.v1.FieldMapper;
+import de.team33.libs.fields.v1.UpdatePipeline;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UpdatePipelineTest {
+
+    private static final FieldMapper<Subject> MAPPER = FieldMapper.FACTORY.mapperFor(Subject.class);
+
+    private final Map<Integer, Subject> targets = new ConcurrentHashMap<>();
+    private final List<UpdatePipeline.Metrics> metrics = new ArrayList<>();
+    private final ManualExecutor executor = new ManualExecutor();
+
+    private UpdatePipeline<Integer, Subject> pipeline(final int capacity, final int batchSize) {
+        return UpdatePipeline.of(MAPPER, targets::get, executor, capacity, batchSize, metrics::add);
+    }
+
+    private static Map<String, Object> patch(final Object... pairs) {
+        final Map<String, Object> result = new HashMap<>();
+        for (int index = 0; index < pairs.length; index += 2) {
+            result.put((String) pairs[index], pairs[index + 1]);
+        }
+        return result;
+    }
+
+    @Test
+    public void coalescing() throws InterruptedException {
+        final Subject subject = new Subject(0, 0.0, false, null, null);
+        targets.put(1, subject);
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(16, 16);
+        pipeline.submit(1, patch("anInt", 1, "aString", "first"));
+        pipeline.submit(1, patch("anInt", 2));
+        pipeline.submit(1, patch("aString", "third", "aBoolean", true));
+        assertEquals(0, subject.anInt);
+
+        executor.runAll();
+        assertEquals(2, subject.anInt);
+        assertEquals("third", subject.aString);
+        assertTrue(subject.aBoolean);
+        assertEquals(1, metrics.size());
+        assertEquals(1, metrics.get(0).targets());
+        assertEquals(3, metrics.get(0).updates());
+        assertEquals(3, metrics.get(0).fields());
+        assertEquals(0, metrics.get(0).backlog());
+    }
+
+    @Test
+    public void batching() throws InterruptedException {
+        for (int key = 0; key < 5; ++key) {
+            targets.put(key, new Subject(0, 0.0, false, null, null));
+        }
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(16, 2);
+        for (int key = 0; key < 5; ++key) {
+            pipeline.submit(key, singletonMap("anInt", key + 10));
+        }
+        executor.runAll();
+        assertEquals(3, metrics.size());
+        assertEquals(3, metrics.get(0).backlog());
+        assertEquals(1, metrics.get(1).backlog());
+        assertEquals(1, metrics.get(2).targets());
+        for (int key = 0; key < 5; ++key) {
+            assertEquals(key + 10, targets.get(key).anInt);
+        }
+    }
+
+    @Test
+    public void backpressure() {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        targets.put(2, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(1, 1);
+        assertTrue(pipeline.offer(1, singletonMap("anInt", 1)));
+        assertTrue(pipeline.offer(1, singletonMap("anInt", 2)));
+        assertFalse(pipeline.offer(2, singletonMap("anInt", 3)));
+
+        executor.runAll();
+        assertTrue(pipeline.offer(2, singletonMap("anInt", 3)));
+        executor.runAll();
+        assertEquals(2, targets.get(1).anInt);
+        assertEquals(3, targets.get(2).anInt);
+    }
+
+    @Test
+    public void missingAndFailing() throws InterruptedException {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(16, 16);
+        pipeline.submit(1, singletonMap("anInt", "not an int"));
+        pipeline.submit(2, singletonMap("anInt", 5));
+        executor.runAll();
+        assertEquals(0, metrics.get(0).targets());
+        assertEquals(1, metrics.get(0).failures());
+        assertEquals(1, metrics.get(0).missing());
+    }
+
+    @Test
+    public void failureHandler() throws InterruptedException {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        final Map<Integer, RuntimeException> causes = new HashMap<>();
+        final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(
+                MAPPER, targets::get, executor, 16, 16, metrics::add, causes::put);
+        pipeline.submit(1, singletonMap("anInt", "not an int"));
+        executor.runAll();
+        assertEquals(1, metrics.get(0).failures());
+        assertEquals(singletonMap(1, causes.get(1)), causes);
+        assertTrue(causes.get(1) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void rejected() throws InterruptedException {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(1, 1);
+        executor.rejecting = true;
+        try {
+            pipeline.offer(1, singletonMap("anInt", 1));
+            fail("expected to fail - but was accepted");
+        } catch (RejectedExecutionException e) {
+            assertNull(e.getCause());
+        }
+
+        executor.rejecting = false;
+        assertTrue(pipeline.offer(1, singletonMap("aString", "accepted")));
+        executor.runAll();
+        assertTrue(pipeline.flush(1, TimeUnit.SECONDS));
+        assertEquals(0, targets.get(1).anInt);
+        assertEquals("accepted", targets.get(1).aString);
+    }
+
+    @Test
+    public void rejectedReschedule() throws InterruptedException {
+        for (int key = 0; key < 3; ++key) {
+            targets.put(key, new Subject(0, 0.0, false, null, null));
+        }
+        final UpdatePipeline<Integer, Subject> pipeline = pipeline(16, 1);
+        for (int key = 0; key < 3; ++key) {
+            pipeline.submit(key, singletonMap("anInt", key + 10));
+        }
+        executor.rejecting = true;
+        executor.runAll();
+        assertTrue(pipeline.flush(1, TimeUnit.SECONDS));
+        assertEquals(3, metrics.size());
+        for (int key = 0; key < 3; ++key) {
+            assertEquals(key + 10, targets.get(key).anInt);
+        }
+    }
+
+    @Test
+    public void failingConsumers() throws InterruptedException {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        targets.put(2, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(
+                MAPPER, targets::get, executor, 16, 1,
+                any -> {
+                    throw new IllegalStateException("failing metrics consumer");
+                },
+                (key, cause) -> {
+                    throw new IllegalStateException("failing failures consumer");
+                });
+        pipeline.submit(1, singletonMap("anInt", "not an int"));
+        pipeline.submit(2, singletonMap("anInt", 2));
+        executor.runAll();
+        assertTrue(pipeline.flush(1, TimeUnit.SECONDS));
+        assertEquals(2, targets.get(2).anInt);
+    }
+
+    @Test
+    public void failingLookup() throws InterruptedException {
+        targets.put(2, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(
+                MAPPER, key -> {
+                    if (1 == key) {
+                        throw new AssertionError("failing lookup");
+                    }
+                    return targets.get(key);
+                }, executor, 16, 1, metrics::add);
+        pipeline.submit(1, singletonMap("anInt", 1));
+        pipeline.submit(2, singletonMap("anInt", 2));
+        try {
+            executor.runAll();
+            fail("expected to fail - but was completed");
+        } catch (AssertionError e) {
+            assertEquals("failing lookup", e.getMessage());
+        }
+        executor.runAll();
+        assertTrue(pipeline.flush(1, TimeUnit.SECONDS));
+        assertEquals(2, targets.get(2).anInt);
+    }
+
+    @Test
+    public void directExecutor() throws InterruptedException {
+        targets.put(1, new Subject(0, 0.0, false, null, null));
+        final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(MAPPER, targets::get, Runnable::run);
+        pipeline.submit(1, singletonMap("anInt", 5));
+        assertEquals(5, targets.get(1).anInt);
+        assertTrue(pipeline.flush(1, TimeUnit.SECONDS));
+        pipeline.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownName() throws InterruptedException {
+        pipeline(16, 16).submit(1, singletonMap("noSuchField", 5));
+    }
+
+    @Test
+    public void closed() throws InterruptedException {
+        final ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            targets.put(1, new Subject(0, 0.0, false, null, null));
+            final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(MAPPER, targets::get, service);
+            pipeline.submit(1, singletonMap("aString", "applied"));
+            pipeline.close();
+            assertEquals("applied", targets.get(1).aString);
+            try {
+                pipeline.submit(1, singletonMap("aString", "rejected"));
+                fail("expected to fail - but was accepted");
+            } catch (IllegalStateException e) {
+                assertNull(e.getCause());
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException {
+        final int keys = 64;
+        for (int key = 0; key < keys; ++key) {
+            targets.put(key, new Subject(0, 0.0, false, null, null));
+        }
+        final ExecutorService service = Executors.newFixedThreadPool(4);
+        try {
+            final UpdatePipeline<Integer, Subject> pipeline = UpdatePipeline.of(
+                    MAPPER, targets::get, service, 8, 4, any -> {
+                    });
+            final List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; ++p) {
+                final int offset = p;
+                producers.add(new Thread(() -> {
+                    try {
+                        for (int step = 0; step < 1000; ++step) {
+                            pipeline.submit((step * 4 + offset) % keys, singletonMap("aString", "x"));
+                        }
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+            for (int key = 0; key < keys; ++key) {
+                pipeline.submit(key, singletonMap("anInt", key));
+            }
+            pipeline.flush();
+            for (int key = 0; key < keys; ++key) {
+                assertEquals(key, targets.get(key).anInt);
+                assertEquals("x", targets.get(key).aString);
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static final class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new LinkedList<>();
+        private boolean rejecting = false;
+
+        @Override
+        public void execute(final Runnable command) {
+            if (rejecting) {
+                throw new RejectedExecutionException();
+            }
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            for (Runnable task = tasks.poll(); null != task; task = tasks.poll()) {
+                task.run();
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Subject {
+
+        private int anInt;
+        private double aDouble;
+        private boolean aBoolean;
+        private String aString;
+        private List<String> aList;
+
+        private Subject(final int anInt, final double aDouble, final boolean aBoolean, final String aString,
+                        final List<String> aList) {
+            this.anInt = anInt;
+            this.aDouble = aDouble;
+            this.aBoolean = aBoolean;
+            this.aString = aString;
+            this.aList = aList;
+        }
+    }
+}